@@ -1,4 +1,7 @@
 import controllers.MainController;
+import dao.impl.ChangeLogPoller;
+import dao.impl.LivreDAOImpl;
+import dao.impl.MembreDAOImpl;
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
@@ -42,6 +45,10 @@ public class Main extends Application {
             primaryStage.setMinHeight(700);
             primaryStage.show();
             
+            ChangeLogPoller.getInstance().start();
+            LivreDAOImpl.buildSearchIndexInBackground();
+            MembreDAOImpl.buildSearchIndexInBackground();
+            
         } catch (IOException e) {
             System.err.println("Erreur lors du chargement des fichiers FXML: " + e.getMessage());
             e.printStackTrace();
@@ -53,10 +60,11 @@ public class Main extends Application {
     
     /**
      * Méthode appelée lors de la fermeture de l'application.
-     * Ferme toutes les connexions à la base de données.
+     * Arrête la lecture du journal des modifications et ferme toutes les connexions à la base de données.
      */
     @Override
     public void stop() {
+        ChangeLogPoller.getInstance().stop();
         DatabaseConnection.closeAllConnections();
     }
 }
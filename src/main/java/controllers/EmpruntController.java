@@ -1,8 +1,14 @@
 package controllers;
 
+import dao.AsyncEmpruntDAO;
+import dao.AsyncLivreDAO;
+import dao.AsyncMembreDAO;
 import dao.EmpruntDAO;
 import dao.LivreDAO;
 import dao.MembreDAO;
+import dao.impl.AsyncEmpruntDAOImpl;
+import dao.impl.AsyncLivreDAOImpl;
+import dao.impl.AsyncMembreDAOImpl;
 import dao.impl.EmpruntDAOImpl;
 import dao.impl.LivreDAOImpl;
 import dao.impl.MembreDAOImpl;
@@ -17,21 +23,43 @@ import models.Membre;
 
 import java.net.URL;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import utils.ChangeEvent;
+import utils.ChangeSet;
+import utils.Config;
+import utils.Debouncer;
+import utils.Dates;
+import utils.EpochDayTableCell;
 import utils.EventSystem;
+import utils.ListPatcher;
+import utils.PagedObservableList;
+import utils.TaskRunner;
 
 /**
  * Contrôleur pour la gestion des emprunts.
  */
 public class EmpruntController implements Initializable {
 
+    // Nombre maximal d'emprunts affichés par une recherche
+    private static final int SEARCH_LIMIT = Math.max(1, Config.getInt("SEARCH_MAX_RESULTS", 500));
+
     private final EmpruntDAO empruntDAO;
     private final LivreDAO livreDAO;
     private final MembreDAO membreDAO;
+    private final AsyncEmpruntDAO asyncEmpruntDAO;
+    private final AsyncLivreDAO asyncLivreDAO;
+    private final AsyncMembreDAO asyncMembreDAO;
+    // Tous les emprunts, chargés par pages à mesure de l'affichage
+    private final PagedObservableList<Emprunt> pagedEmprunts;
+    // Résultats de la recherche, affichés à la place de tous les emprunts
     private final ObservableList<Emprunt> empruntsList;
 
     @FXML
@@ -47,13 +75,13 @@ public class EmpruntController implements Initializable {
     private TableColumn<Emprunt, String> membreColumn;
 
     @FXML
-    private TableColumn<Emprunt, String> dateEmpruntColumn;
+    private TableColumn<Emprunt, Number> dateEmpruntColumn;
 
     @FXML
-    private TableColumn<Emprunt, String> dateRetourPrevueColumn;
+    private TableColumn<Emprunt, Number> dateRetourPrevueColumn;
 
     @FXML
-    private TableColumn<Emprunt, String> dateRetourReelleColumn;
+    private TableColumn<Emprunt, Number> dateRetourReelleColumn;
 
     @FXML
     private ComboBox<Livre> livreComboBox;
@@ -72,6 +100,15 @@ public class EmpruntController implements Initializable {
     
     @FXML
     private TextField searchField;
+    
+    @FXML
+    private ProgressIndicator loadingIndicator;
+    
+    // Accès à la base hors du thread JavaFX
+    private TaskRunner loader;
+    
+    // Recherche lancée pendant la frappe
+    private Debouncer searchDebouncer;
 
     /**
      * Constructeur du contrôleur d'emprunts.
@@ -81,7 +118,27 @@ public class EmpruntController implements Initializable {
         this.livreDAO = new LivreDAOImpl();
         this.membreDAO = new MembreDAOImpl();
         this.empruntDAO = new EmpruntDAOImpl(livreDAO, membreDAO);
+        this.asyncEmpruntDAO = new AsyncEmpruntDAOImpl(empruntDAO);
+        this.asyncLivreDAO = new AsyncLivreDAOImpl(livreDAO);
+        this.asyncMembreDAO = new AsyncMembreDAOImpl(membreDAO);
         this.empruntsList = FXCollections.observableArrayList();
+        this.pagedEmprunts = new PagedObservableList<>(new PagedObservableList.DataSource<>() {
+            @Override
+            public int[] loadIds(String sortColumn, boolean descending) throws Exception {
+                return empruntDAO.findSortedIds(sortColumn, descending);
+            }
+
+            @Override
+            public Map<Integer, Emprunt> loadPage(List<Integer> ids) throws Exception {
+                Map<Integer, Emprunt> emprunts = empruntDAO.findByIds(ids);
+                resolveDetails(emprunts.values());
+                return emprunts;
+            }
+        }, id -> {
+            Emprunt emprunt = new Emprunt();
+            emprunt.setId(id);
+            return emprunt;
+        }, e -> showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors du chargement des emprunts", e.getMessage()));
     }
 
     /**
@@ -117,6 +174,9 @@ public class EmpruntController implements Initializable {
         dateEmpruntColumn.setCellValueFactory(cellData -> cellData.getValue().dateEmpruntProperty());
         dateRetourPrevueColumn.setCellValueFactory(cellData -> cellData.getValue().dateRetourPrevueProperty());
         dateRetourReelleColumn.setCellValueFactory(cellData -> cellData.getValue().dateRetourReelleProperty());
+        dateEmpruntColumn.setCellFactory(EpochDayTableCell.forTableColumn());
+        dateRetourPrevueColumn.setCellFactory(EpochDayTableCell.forTableColumn());
+        dateRetourReelleColumn.setCellFactory(EpochDayTableCell.forTableColumn());
         
         empruntsTable.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
             if (newSelection != null) {
@@ -124,120 +184,282 @@ public class EmpruntController implements Initializable {
             }
         });
         
-        empruntsTable.setItems(empruntsList);
+        empruntsTable.setItems(pagedEmprunts);
+        setupSorting();
         
         dateEmpruntPicker.setValue(LocalDate.now());
         dateRetourPrevuePicker.setValue(LocalDate.now().plusDays(14));
         
+        setupComboBoxes();
+        
+        loader = new TaskRunner(loadingIndicator);
+        searchDebouncer = new Debouncer(this::handleSearch);
+        searchField.textProperty().addListener((obs, oldText, newText) -> searchDebouncer.trigger());
         refreshData();
         
-        EventSystem.getInstance().subscribe("LIVRE_MODIFIED", data -> refreshData());
-        EventSystem.getInstance().subscribe("MEMBRE_MODIFIED", data -> refreshData());
-        EventSystem.getInstance().subscribe("EMPRUNT_VIEW_ACTIVATED", data -> refreshData());
+        // Abonnements rattachés au contrôleur : ils disparaissent avec lui
+        EventSystem.getInstance().subscribeChanges(this, EmpruntController::applyChanges);
+        EventSystem.getInstance().subscribe("EMPRUNT_VIEW_ACTIVATED", this,
+                (controller, data) -> controller.refreshData(), EventSystem.Dispatch.FX_THREAD);
+    }
+    
+    /**
+     * Trie les emprunts par la base : seule la première colonne de tri est prise en compte.
+     * Les résultats d'une recherche, entièrement chargés, sont triés en mémoire.
+     */
+    private void setupSorting() {
+        Map<TableColumn<Emprunt, ?>, String> sortColumns = new HashMap<>();
+        sortColumns.put(idColumn, "id");
+        sortColumns.put(livreColumn, "livre");
+        sortColumns.put(membreColumn, "membre");
+        sortColumns.put(dateEmpruntColumn, "date_emprunt");
+        sortColumns.put(dateRetourPrevueColumn, "date_retour_prevue");
+        sortColumns.put(dateRetourReelleColumn, "date_retour_reelle");
+        
+        empruntsTable.setSortPolicy(table -> {
+            if (table.getItems() != pagedEmprunts) {
+                return TableView.DEFAULT_SORT_POLICY.call(table);
+            }
+            TableColumn<Emprunt, ?> column = table.getSortOrder().isEmpty() ? null : table.getSortOrder().get(0);
+            pagedEmprunts.sort(column == null ? null : sortColumns.get(column),
+                    column != null && column.getSortType() == TableColumn.SortType.DESCENDING);
+            return true;
+        });
     }
     
     /**
      * Rafraîchit toutes les données affichées dans la vue.
+     * Les livres et les membres sont chargés en parallèle, puis appliqués ensemble aux listes de choix ;
+     * les emprunts sont rechargés par pages.
      */
     public void refreshData() {
+        CompletableFuture<List<Livre>> livres = asyncLivreDAO.findAll();
+        CompletableFuture<List<Membre>> membres = asyncMembreDAO.findAll();
+        
+        loader.await(CompletableFuture.allOf(livres, membres), done -> {
+            ListPatcher.patch(livreComboBox.getItems(), livres.join(), Livre::getId, Livre::copyFrom);
+            ListPatcher.patch(membreComboBox.getItems(), membres.join(), Membre::getId, Membre::copyFrom);
+        }, e -> showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors du chargement des emprunts", e.getMessage()));
+        
         loadEmprunts();
-        loadLivres();
-        loadMembres();
     }
 
     /**
-     * Charge tous les emprunts depuis la base de données.
+     * Affiche tous les emprunts, rechargés dans l'ordre de tri de la table.
      */
     private void loadEmprunts() {
-        try {
-            empruntsList.clear();
-            List<Emprunt> emprunts = empruntDAO.findAllWithDetails();
-            
+        empruntsTable.setItems(pagedEmprunts);
+        empruntsList.clear();
+        empruntsTable.sort();
+        pagedEmprunts.reload();
+    }
+
+    /**
+     * Complète les emprunts dont le livre ou le membre n'a pas été chargé par la jointure.
+     *
+     * @param emprunts Les emprunts à compléter
+     * @throws Exception En cas d'erreur lors du chargement
+     */
+    private void resolveDetails(Collection<Emprunt> emprunts) throws Exception {
+        Set<Integer> livreIds = new HashSet<>();
+        Set<Integer> membreIds = new HashSet<>();
+        for (Emprunt emprunt : emprunts) {
+            if (emprunt.getLivre() == null) {
+                livreIds.add(emprunt.getLivreId());
+            }
+            if (emprunt.getMembre() == null) {
+                membreIds.add(emprunt.getMembreId());
+            }
+        }
+        
+        if (!livreIds.isEmpty() || !membreIds.isEmpty()) {
+            Map<Integer, Livre> livres = livreDAO.findByIds(livreIds);
+            Map<Integer, Membre> membres = membreDAO.findByIds(membreIds);
             for (Emprunt emprunt : emprunts) {
                 if (emprunt.getLivre() == null) {
-                    Livre livre = livreDAO.findById(emprunt.getLivreId());
-                    emprunt.setLivre(livre);
+                    emprunt.setLivre(livres.get(emprunt.getLivreId()));
                 }
                 if (emprunt.getMembre() == null) {
-                    Membre membre = membreDAO.findById(emprunt.getMembreId());
+                    emprunt.setMembre(membres.get(emprunt.getMembreId()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Applique les modifications publiées par ce client ou par les autres :
+     * seules les entités modifiées sont relues, puis remplacées dans la table et les listes de choix.
+     *
+     * @param changes Les modifications fusionnées
+     */
+    private void applyChanges(ChangeSet changes) {
+        loader.submit(() -> new ChangedEntities(changes), changed -> applyChanges(changes, changed),
+                e -> showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors du chargement des emprunts", e.getMessage()));
+    }
+
+    /**
+     * Applique sur le thread JavaFX les entités relues par {@link ChangedEntities}.
+     *
+     * @param changes Les modifications fusionnées
+     * @param changed Les entités relues
+     */
+    private void applyChanges(ChangeSet changes, ChangedEntities changed) {
+        if (changes.contains(ChangeEvent.Entity.LIVRE)) {
+            Map<Integer, Livre> livres = changed.livres;
+            ListPatcher.apply(livreComboBox.getItems(), livres, changes.deletedIds(ChangeEvent.Entity.LIVRE),
+                    Livre::getId, Livre::copyFrom, true);
+            for (Emprunt emprunt : loadedEmprunts()) {
+                Livre livre = livres.get(emprunt.getLivreId());
+                if (livre == null) {
+                    continue;
+                }
+                if (emprunt.getLivre() != null && emprunt.getLivre().getId() == livre.getId()) {
+                    emprunt.getLivre().copyFrom(livre);
+                } else {
+                    emprunt.setLivre(livre);
+                }
+            }
+        }
+        
+        if (changes.contains(ChangeEvent.Entity.MEMBRE)) {
+            Map<Integer, Membre> membres = changed.membres;
+            ListPatcher.apply(membreComboBox.getItems(), membres, changes.deletedIds(ChangeEvent.Entity.MEMBRE),
+                    Membre::getId, Membre::copyFrom, true);
+            for (Emprunt emprunt : loadedEmprunts()) {
+                Membre membre = membres.get(emprunt.getMembreId());
+                if (membre == null) {
+                    continue;
+                }
+                if (emprunt.getMembre() != null && emprunt.getMembre().getId() == membre.getId()) {
+                    emprunt.getMembre().copyFrom(membre);
+                } else {
                     emprunt.setMembre(membre);
                 }
             }
+        }
+        
+        if (changes.contains(ChangeEvent.Entity.EMPRUNT)) {
+            ListPatcher.apply(empruntsList, changed.emprunts, changes.deletedIds(ChangeEvent.Entity.EMPRUNT),
+                    Emprunt::getId, Emprunt::copyFrom, false);
             
-            empruntsList.addAll(emprunts);
-        } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors du chargement des emprunts", e.getMessage());
+            // Une insertion ou une suppression déplace les lignes : intégrée sur place dans l'ordre des IDs,
+            // elle impose sinon de recharger les IDs triés
+            Map<Integer, ChangeEvent.Kind> emprunts = changes.get(ChangeEvent.Entity.EMPRUNT);
+            if (emprunts.containsValue(ChangeEvent.Kind.INSERT) || emprunts.containsValue(ChangeEvent.Kind.DELETE)) {
+                String sortColumn = pagedEmprunts.getSortColumn();
+                if (sortColumn == null || "id".equals(sortColumn)) {
+                    Map<Integer, Emprunt> inserted = new HashMap<>();
+                    emprunts.forEach((id, kind) -> {
+                        Emprunt emprunt = changed.emprunts.get(id);
+                        if (kind == ChangeEvent.Kind.INSERT && emprunt != null) {
+                            inserted.put(id, emprunt);
+                        }
+                    });
+                    pagedEmprunts.splice(inserted, changes.deletedIds(ChangeEvent.Entity.EMPRUNT));
+                } else {
+                    pagedEmprunts.reload();
+                }
+            }
+            pagedEmprunts.update(changed.emprunts, Emprunt::getId, Emprunt::copyFrom);
         }
+        
+        // La colonne membre est calculée et n'observe pas le membre lié
+        empruntsTable.refresh();
     }
 
     /**
-     * Charge tous les livres depuis la base de données.
+     * Retourne les emprunts chargés, dans la table paginée et dans les résultats de recherche.
+     *
+     * @return Les emprunts chargés
      */
-    private void loadLivres() {
-        try {
-            livreComboBox.setItems(FXCollections.observableArrayList(livreDAO.findAll()));
-            livreComboBox.setCellFactory(lv -> new ListCell<Livre>() {
-                @Override
-                protected void updateItem(Livre livre, boolean empty) {
-                    super.updateItem(livre, empty);
-                    if (empty || livre == null) {
-                        setText(null);
-                        setStyle("");
+    private List<Emprunt> loadedEmprunts() {
+        List<Emprunt> emprunts = pagedEmprunts.getLoaded();
+        emprunts.addAll(empruntsList);
+        return emprunts;
+    }
+
+    /**
+     * Entités modifiées relues en arrière-plan, avant leur application à la vue.
+     */
+    private final class ChangedEntities {
+        private final Map<Integer, Livre> livres;
+        private final Map<Integer, Membre> membres;
+        private final Map<Integer, Emprunt> emprunts;
+
+        private ChangedEntities(ChangeSet changes) throws Exception {
+            Set<Integer> livreIds = changes.changedIds(ChangeEvent.Entity.LIVRE);
+            Set<Integer> membreIds = changes.changedIds(ChangeEvent.Entity.MEMBRE);
+            Set<Integer> empruntIds = changes.changedIds(ChangeEvent.Entity.EMPRUNT);
+            livres = livreIds.isEmpty() ? Map.of() : livreDAO.findByIds(livreIds);
+            membres = membreIds.isEmpty() ? Map.of() : membreDAO.findByIds(membreIds);
+            emprunts = empruntIds.isEmpty() ? Map.of() : empruntDAO.findByIds(empruntIds);
+            resolveDetails(emprunts.values());
+        }
+    }
+
+    /**
+     * Configure l'affichage des listes de choix des livres et des membres.
+     */
+    private void setupComboBoxes() {
+        livreComboBox.setItems(FXCollections.observableArrayList());
+        membreComboBox.setItems(FXCollections.observableArrayList());
+        livreComboBox.setCellFactory(lv -> new ListCell<Livre>() {
+            @Override
+            protected void updateItem(Livre livre, boolean empty) {
+                super.updateItem(livre, empty);
+                if (empty || livre == null) {
+                    setText(null);
+                    setStyle("");
+                } else {
+                    String disponibiliteText = livre.isDisponible() ? "[Disponible]" : "[Indisponible]"; 
+                    setText(livre.getTitre() + " (" + livre.getAuteur() + ") " + disponibiliteText);
+                    
+                    if (!livre.isDisponible()) {
                     } else {
-                        String disponibiliteText = livre.isDisponible() ? "[Disponible]" : "[Indisponible]"; 
-                        setText(livre.getTitre() + " (" + livre.getAuteur() + ") " + disponibiliteText);
-                        
-                        if (!livre.isDisponible()) {
-                        } else {
-                        }
                     }
                 }
-            });
-            livreComboBox.setButtonCell(new ListCell<Livre>() {
-                @Override
-                protected void updateItem(Livre livre, boolean empty) {
-                    super.updateItem(livre, empty);
-                    if (empty || livre == null) {
-                        setText(null);
-                        setStyle("");
+            }
+        });
+        livreComboBox.setButtonCell(new ListCell<Livre>() {
+            @Override
+            protected void updateItem(Livre livre, boolean empty) {
+                super.updateItem(livre, empty);
+                if (empty || livre == null) {
+                    setText(null);
+                    setStyle("");
+                } else {
+                    String disponibiliteText = livre.isDisponible() ? "[Disponible]" : "[Indisponible]"; 
+                    setText(livre.getTitre() + " (" + livre.getAuteur() + ") " + disponibiliteText);
+                    
+                    if (!livre.isDisponible()) {
                     } else {
-                        String disponibiliteText = livre.isDisponible() ? "[Disponible]" : "[Indisponible]"; 
-                        setText(livre.getTitre() + " (" + livre.getAuteur() + ") " + disponibiliteText);
-                        
-                        if (!livre.isDisponible()) {
-                        } else {
-                        }
                     }
                 }
-            });
-        } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors du chargement des livres", e.getMessage());
-        }
+            }
+        });
+        membreComboBox.setCellFactory(lv -> new ListCell<Membre>() {
+            @Override
+            protected void updateItem(Membre membre, boolean empty) {
+                super.updateItem(membre, empty);
+                setText(empty ? "" : membre.getNom() + " " + membre.getPrenom());
+            }
+        });
+        membreComboBox.setButtonCell(new ListCell<Membre>() {
+            @Override
+            protected void updateItem(Membre membre, boolean empty) {
+                super.updateItem(membre, empty);
+                setText(empty ? "" : membre.getNom() + " " + membre.getPrenom());
+            }
+        });
     }
 
     /**
-     * Charge tous les membres depuis la base de données.
+     * Charge tous les livres depuis la base de données.
      */
-    private void loadMembres() {
-        try {
-            membreComboBox.setItems(FXCollections.observableArrayList(membreDAO.findAll()));
-            membreComboBox.setCellFactory(lv -> new ListCell<Membre>() {
-                @Override
-                protected void updateItem(Membre membre, boolean empty) {
-                    super.updateItem(membre, empty);
-                    setText(empty ? "" : membre.getNom() + " " + membre.getPrenom());
-                }
-            });
-            membreComboBox.setButtonCell(new ListCell<Membre>() {
-                @Override
-                protected void updateItem(Membre membre, boolean empty) {
-                    super.updateItem(membre, empty);
-                    setText(empty ? "" : membre.getNom() + " " + membre.getPrenom());
-                }
-            });
-        } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors du chargement des membres", e.getMessage());
-        }
+    private void loadLivres() {
+        loader.submit(livreDAO::findAll,
+                livres -> ListPatcher.patch(livreComboBox.getItems(), livres, Livre::getId, Livre::copyFrom),
+                e -> showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors du chargement des livres", e.getMessage()));
     }
 
     /**
@@ -249,21 +471,9 @@ public class EmpruntController implements Initializable {
         livreComboBox.setValue(emprunt.getLivre());
         membreComboBox.setValue(emprunt.getMembre());
 
-        try {
-            LocalDate dateEmprunt = LocalDate.parse(emprunt.getDateEmprunt());
-            dateEmpruntPicker.setValue(dateEmprunt);
-
-            LocalDate dateRetourPrevue = LocalDate.parse(emprunt.getDateRetourPrevue());
-            dateRetourPrevuePicker.setValue(dateRetourPrevue);
-
-            if (emprunt.getDateRetourReelle() != null && !emprunt.getDateRetourReelle().isEmpty()) {
-                LocalDate dateRetourReelle = LocalDate.parse(emprunt.getDateRetourReelle());
-                dateRetourReellePicker.setValue(dateRetourReelle);
-            }
-        } catch (Exception e) {
-            dateEmpruntPicker.setValue(LocalDate.now());
-            dateRetourPrevuePicker.setValue(LocalDate.now().plusDays(14));
-        }
+        dateEmpruntPicker.setValue(Dates.toLocalDate(emprunt.getDateEmprunt()));
+        dateRetourPrevuePicker.setValue(Dates.toLocalDate(emprunt.getDateRetourPrevue()));
+        dateRetourReellePicker.setValue(Dates.toLocalDate(emprunt.getDateRetourReelle()));
     }
 
     /**
@@ -293,35 +503,31 @@ public class EmpruntController implements Initializable {
                 return;
             }
 
-            if (!livreComboBox.getValue().isDisponible()) {
-                showAlert(Alert.AlertType.WARNING, "Validation", "Livre non disponible", 
-                        "Le livre sélectionné n'est pas disponible pour l'emprunt.");
-                return;
-            }
-
-            String dateEmprunt = dateEmpruntPicker.getValue().format(DateTimeFormatter.ISO_LOCAL_DATE);
-            String dateRetourPrevue = dateRetourPrevuePicker.getValue().format(DateTimeFormatter.ISO_LOCAL_DATE);
+            long dateEmprunt = Dates.toEpochDay(dateEmpruntPicker.getValue());
+            long dateRetourPrevue = Dates.toEpochDay(dateRetourPrevuePicker.getValue());
 
-            Emprunt emprunt = new Emprunt(
+            // La disponibilité est vérifiée par la base : l'objet de la liste peut être périmé
+            Emprunt addedEmprunt = empruntDAO.checkout(
                     livreComboBox.getValue().getId(),
                     membreComboBox.getValue().getId(),
                     dateEmprunt,
                     dateRetourPrevue
             );
 
-            emprunt.setLivre(livreComboBox.getValue());
-            emprunt.setMembre(membreComboBox.getValue());
-
-            Emprunt addedEmprunt = empruntDAO.insert(emprunt);
-
-            empruntsList.add(addedEmprunt);
+            if (addedEmprunt == null) {
+                loadLivres();
+                showAlert(Alert.AlertType.WARNING, "Validation", "Livre non disponible", 
+                        "Le livre sélectionné n'est pas disponible pour l'emprunt.");
+                return;
+            }
 
             livreComboBox.getValue().setDisponible(false);
-            livreDAO.updateDisponibilite(livreComboBox.getValue().getId(), false);
+            addedEmprunt.setLivre(livreComboBox.getValue());
+            addedEmprunt.setMembre(membreComboBox.getValue());
 
-            loadLivres();
-            
-            EventSystem.getInstance().publish("LIVRE_MODIFIED", null);
+            EventSystem.getInstance().publishChanges(List.of(
+                    new ChangeEvent(ChangeEvent.Entity.EMPRUNT, addedEmprunt.getId(), ChangeEvent.Kind.INSERT),
+                    new ChangeEvent(ChangeEvent.Entity.LIVRE, addedEmprunt.getLivreId(), ChangeEvent.Kind.DISPONIBILITE)));
 
             clearForm();
 
@@ -354,13 +560,11 @@ public class EmpruntController implements Initializable {
                 return;
             }
             
-            String dateEmprunt = dateEmpruntPicker.getValue().format(DateTimeFormatter.ISO_LOCAL_DATE);
-            String dateRetourPrevue = dateRetourPrevuePicker.getValue().format(DateTimeFormatter.ISO_LOCAL_DATE);
-            String dateRetourReelle = null;
+            long dateEmprunt = Dates.toEpochDay(dateEmpruntPicker.getValue());
+            long dateRetourPrevue = Dates.toEpochDay(dateRetourPrevuePicker.getValue());
+            long dateRetourReelle = Dates.toEpochDay(dateRetourReellePicker.getValue());
             
-            if (dateRetourReellePicker.getValue() != null) {
-                dateRetourReelle = dateRetourReellePicker.getValue().format(DateTimeFormatter.ISO_LOCAL_DATE);
-            }
+            int ancienLivreId = selectedEmprunt.getLivreId();
             
             selectedEmprunt.setLivreId(livreComboBox.getValue().getId());
             selectedEmprunt.setMembreId(membreComboBox.getValue().getId());
@@ -372,9 +576,10 @@ public class EmpruntController implements Initializable {
             
             empruntDAO.update(selectedEmprunt);
             
-            loadEmprunts();
-            
-            EventSystem.getInstance().publish("LIVRE_MODIFIED", null);
+            EventSystem.getInstance().publishChanges(List.of(
+                    new ChangeEvent(ChangeEvent.Entity.EMPRUNT, selectedEmprunt.getId(), ChangeEvent.Kind.UPDATE),
+                    new ChangeEvent(ChangeEvent.Entity.LIVRE, ancienLivreId, ChangeEvent.Kind.DISPONIBILITE),
+                    new ChangeEvent(ChangeEvent.Entity.LIVRE, selectedEmprunt.getLivreId(), ChangeEvent.Kind.DISPONIBILITE)));
             
             clearForm();
             
@@ -408,21 +613,21 @@ public class EmpruntController implements Initializable {
         Optional<ButtonType> result = confirmDialog.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
             try {
+                // La suppression rend aussi le livre disponible si l'emprunt était en cours
                 empruntDAO.delete(selectedEmprunt.getId());
                 
-                if (selectedEmprunt.getDateRetourReelle() == null || selectedEmprunt.getDateRetourReelle().isEmpty()) {
+                if (selectedEmprunt.isEnCours()) {
                     Livre livre = selectedEmprunt.getLivre();
                     if (livre != null) {
                         livre.setDisponible(true);
-                        livreDAO.updateDisponibilite(livre.getId(), true);
                     }
                 }
                 
                 empruntsList.remove(selectedEmprunt);
                 
-                loadLivres();
-                
-                EventSystem.getInstance().publish("LIVRE_MODIFIED", null);
+                EventSystem.getInstance().publishChanges(List.of(
+                        new ChangeEvent(ChangeEvent.Entity.EMPRUNT, selectedEmprunt.getId(), ChangeEvent.Kind.DELETE),
+                        new ChangeEvent(ChangeEvent.Entity.LIVRE, selectedEmprunt.getLivreId(), ChangeEvent.Kind.DISPONIBILITE)));
                 
                 clearForm();
                 
@@ -449,31 +654,40 @@ public class EmpruntController implements Initializable {
         }
         
         try {
-            if (selectedEmprunt.getDateRetourReelle() != null && !selectedEmprunt.getDateRetourReelle().isEmpty()) {
+            if (!selectedEmprunt.isEnCours()) {
                 showAlert(Alert.AlertType.WARNING, "Validation", "Emprunt déjà retourné",
                         "Cet emprunt a déjà été retourné.");
                 return;
             }
             
-            String dateRetourReelle;
+            long dateRetourReelle;
             
             if (dateRetourReellePicker.getValue() != null) {
-                dateRetourReelle = dateRetourReellePicker.getValue().format(DateTimeFormatter.ISO_LOCAL_DATE);
+                dateRetourReelle = Dates.toEpochDay(dateRetourReellePicker.getValue());
             } else {
-                dateRetourReelle = LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
+                dateRetourReelle = Dates.today();
             }
             
-            selectedEmprunt.setDateRetourReelle(dateRetourReelle);
+            // Enregistre le retour et rend le livre disponible en une seule requête
+            if (!empruntDAO.retournerEmprunt(selectedEmprunt.getId(), dateRetourReelle)) {
+                ChangeSet stale = new ChangeSet();
+                stale.add(new ChangeEvent(ChangeEvent.Entity.EMPRUNT, selectedEmprunt.getId(), ChangeEvent.Kind.UPDATE));
+                applyChanges(stale);
+                showAlert(Alert.AlertType.WARNING, "Validation", "Emprunt déjà retourné",
+                        "Cet emprunt a déjà été retourné.");
+                return;
+            }
             
-            empruntDAO.update(selectedEmprunt);
+            selectedEmprunt.setDateRetourReelle(dateRetourReelle);
             
             Livre livre = selectedEmprunt.getLivre();
-            livre.setDisponible(true);
-            livreDAO.updateDisponibilite(livre.getId(), true);
-            
-            loadEmprunts();
+            if (livre != null) {
+                livre.setDisponible(true);
+            }
             
-            EventSystem.getInstance().publish("LIVRE_MODIFIED", null);
+            EventSystem.getInstance().publishChanges(List.of(
+                    new ChangeEvent(ChangeEvent.Entity.EMPRUNT, selectedEmprunt.getId(), ChangeEvent.Kind.UPDATE),
+                    new ChangeEvent(ChangeEvent.Entity.LIVRE, selectedEmprunt.getLivreId(), ChangeEvent.Kind.DISPONIBILITE)));
             
             clearForm();
             
@@ -486,47 +700,25 @@ public class EmpruntController implements Initializable {
     }
     
     /**
-     * Recherche des emprunts par livre, membre ou date.
-     * Méthode appelée par le bouton de recherche dans le FXML.
+     * Recherche des emprunts par livre, membre ou date, filtrés par la base.
+     * Méthode appelée par le bouton de recherche dans le FXML, et pendant la frappe une fois la saisie interrompue.
+     * Une recherche remplace la précédente, annulée côté base si elle est encore en cours.
      */
     @FXML
     private void handleSearch() {
-        String query = searchField.getText().trim().toLowerCase();
-        try {
-            if (query == null || query.isEmpty()) {
-                return;
-            }
-            
-            List<Emprunt> allEmprunts = empruntDAO.findAllWithDetails();
-            List<Emprunt> filteredEmprunts = new ArrayList<>();
-            
-            for (Emprunt emprunt : allEmprunts) {
-                if (emprunt.getLivre() != null && 
-                    emprunt.getLivre().getTitre().toLowerCase().contains(query)) {
-                    filteredEmprunts.add(emprunt);
-                    continue;
-                }
-                
-                if (emprunt.getMembre() != null && 
-                    (emprunt.getMembre().getNom().toLowerCase().contains(query) || 
-                     emprunt.getMembre().getPrenom().toLowerCase().contains(query))) {
-                    filteredEmprunts.add(emprunt);
-                    continue;
-                }
-                
-                if (emprunt.getDateEmprunt().contains(query) || 
-                    emprunt.getDateRetourPrevue().contains(query) || 
-                    (emprunt.getDateRetourReelle() != null && emprunt.getDateRetourReelle().contains(query))) {
-                    filteredEmprunts.add(emprunt);
-                }
-            }
-            
-            empruntsList.clear();
-            empruntsList.addAll(filteredEmprunts);
-            
-        } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors de la recherche", e.getMessage());
+        searchDebouncer.cancel();
+        String query = searchField.getText().trim();
+        if (query.isEmpty()) {
+            loader.cancel();
+            loadEmprunts();
+            return;
         }
+        
+        loader.run(() -> empruntDAO.search(query, SEARCH_LIMIT), emprunts -> {
+            ListPatcher.patch(empruntsList, emprunts, Emprunt::getId, Emprunt::copyFrom);
+            empruntsTable.setItems(empruntsList);
+            empruntsTable.sort();
+        }, e -> showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors de la recherche", e.getMessage()));
     }
     
     /**
@@ -536,6 +728,8 @@ public class EmpruntController implements Initializable {
     @FXML
     private void handleReset() {
         searchField.clear();
+        searchDebouncer.cancel();
+        loader.cancel();
         loadEmprunts();
     }
     
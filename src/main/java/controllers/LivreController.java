@@ -10,15 +10,27 @@ import javafx.scene.control.*;
 import models.Livre;
 
 import java.net.URL;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.Set;
+import utils.ChangeEvent;
+import utils.ChangeSet;
+import utils.Config;
+import utils.Debouncer;
 import utils.EventSystem;
+import utils.ListPatcher;
+import utils.TaskRunner;
 
 /**
  * Contrôleur pour la gestion des livres.
  */
 public class LivreController implements Initializable {
     
+    // Nombre maximal de livres affichés par une recherche
+    private static final int SEARCH_LIMIT = Math.max(1, Config.getInt("SEARCH_MAX_RESULTS", 500));
+    
     private final LivreDAO livreDAO;
     private final ObservableList<Livre> livresList;
     
@@ -67,6 +79,15 @@ public class LivreController implements Initializable {
     @FXML
     private TextField searchField;
     
+    @FXML
+    private ProgressIndicator loadingIndicator;
+    
+    // Accès à la base hors du thread JavaFX
+    private TaskRunner loader;
+    
+    // Recherche lancée pendant la frappe
+    private Debouncer searchDebouncer;
+    
     /**
      * Constructeur du contrôleur de livres.
      * Initialise le DAO et la liste observable des livres.
@@ -113,21 +134,20 @@ public class LivreController implements Initializable {
         
         livresTable.setItems(livresList);
         
+        loader = new TaskRunner(loadingIndicator);
+        searchDebouncer = new Debouncer(this::handleSearch);
+        searchField.textProperty().addListener((obs, oldText, newText) -> searchDebouncer.trigger());
         loadLivres();
         
-        EventSystem.getInstance().subscribe("LIVRE_MODIFIED", data -> refreshData());
+        EventSystem.getInstance().subscribeChanges(this, LivreController::applyChanges);
     }
     
     /**
      * Charge tous les livres depuis la base de données.
      */
     private void loadLivres() {
-        try {
-            livresList.clear();
-            livresList.addAll(livreDAO.findAll());
-        } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors du chargement des livres", e.getMessage());
-        }
+        loader.run(livreDAO::findAll, livres -> ListPatcher.patch(livresList, livres, Livre::getId, Livre::copyFrom),
+                e -> showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors du chargement des livres", e.getMessage()));
     }
     
     /**
@@ -138,23 +158,38 @@ public class LivreController implements Initializable {
     }
     
     /**
-     * Recherche des livres par titre ou auteur.
-     * Méthode appelée par le bouton de recherche dans le FXML.
+     * Applique à la table les modifications de livres publiées par ce client ou par les autres.
+     * Seuls les livres modifiés sont relus ; les nouveaux livres ne sont ajoutés qu'en l'absence de recherche.
+     * 
+     * @param changes Les modifications fusionnées
+     */
+    private void applyChanges(ChangeSet changes) {
+        if (!changes.contains(ChangeEvent.Entity.LIVRE)) {
+            return;
+        }
+        Set<Integer> changedIds = changes.changedIds(ChangeEvent.Entity.LIVRE);
+        loader.submit(
+                () -> changedIds.isEmpty() ? Map.<Integer, Livre>of() : livreDAO.findByIds(changedIds),
+                livres -> ListPatcher.apply(livresList, livres, changes.deletedIds(ChangeEvent.Entity.LIVRE),
+                        Livre::getId, Livre::copyFrom, searchField.getText() == null || searchField.getText().trim().isEmpty()),
+                e -> showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors du chargement des livres", e.getMessage()));
+    }
+    
+    /**
+     * Recherche des livres par titre, auteur, éditeur ou ISBN dans l'index du catalogue.
+     * Méthode appelée par le bouton de recherche dans le FXML, et pendant la frappe une fois la saisie interrompue.
+     * Une recherche remplace la précédente, annulée côté base si elle est encore en cours.
      */
     @FXML
     private void handleSearch() {
+        searchDebouncer.cancel();
         String query = searchField.getText();
-        try {
-            if (query == null || query.trim().isEmpty()) {
-                loadLivres();
-            } else {
-                livresList.clear();
-                livresList.addAll(livreDAO.findByTitre(query));
-                livresList.addAll(livreDAO.findByAuteur(query));
-            }
-        } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors de la recherche des livres", e.getMessage());
+        if (query == null || query.trim().isEmpty()) {
+            loadLivres();
+            return;
         }
+        loader.run(() -> livreDAO.search(query, SEARCH_LIMIT), livres -> ListPatcher.patchOrdered(livresList, livres, Livre::getId, Livre::copyFrom),
+                e -> showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors de la recherche des livres", e.getMessage()));
     }
     
     /**
@@ -163,6 +198,7 @@ public class LivreController implements Initializable {
     @FXML
     private void handleReset() {
         searchField.clear();
+        searchDebouncer.cancel();
         loadLivres();
     }
     
@@ -232,7 +268,7 @@ public class LivreController implements Initializable {
             
             clearForm();
             
-            EventSystem.getInstance().publish("LIVRE_MODIFIED", null);
+            EventSystem.getInstance().publishChange(ChangeEvent.Entity.LIVRE, addedLivre.getId(), ChangeEvent.Kind.INSERT);
             
             showAlert(Alert.AlertType.INFORMATION, "Succès", "Livre ajouté", 
                       "Le livre a été ajouté avec succès.");
@@ -284,7 +320,7 @@ public class LivreController implements Initializable {
             if (success) {
                 livresTable.refresh();
                 
-                EventSystem.getInstance().publish("LIVRE_MODIFIED", null);
+                EventSystem.getInstance().publishChange(ChangeEvent.Entity.LIVRE, selectedLivre.getId(), ChangeEvent.Kind.UPDATE);
                 
                 showAlert(Alert.AlertType.INFORMATION, "Succès", "Livre modifié", 
                           "Le livre a été modifié avec succès.");
@@ -328,7 +364,7 @@ public class LivreController implements Initializable {
                     
                     clearForm();
                     
-                    EventSystem.getInstance().publish("LIVRE_MODIFIED", null);
+                    EventSystem.getInstance().publishChange(ChangeEvent.Entity.LIVRE, selectedLivre.getId(), ChangeEvent.Kind.DELETE);
                     
                     showAlert(Alert.AlertType.INFORMATION, "Succès", "Livre supprimé", 
                               "Le livre a été supprimé avec succès.");
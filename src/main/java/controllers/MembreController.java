@@ -11,16 +11,28 @@ import models.Membre;
 
 import java.net.URL;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.Set;
+import utils.ChangeEvent;
+import utils.ChangeSet;
+import utils.Config;
+import utils.Debouncer;
+import utils.Dates;
+import utils.EpochDayTableCell;
 import utils.EventSystem;
+import utils.ListPatcher;
+import utils.TaskRunner;
 
 /**
  * Contrôleur pour la gestion des membres.
  */
 public class MembreController implements Initializable {
     
+    // Nombre maximal de membres affichés par une recherche
+    private static final int SEARCH_LIMIT = Math.max(1, Config.getInt("SEARCH_MAX_RESULTS", 500));
+    
     private final MembreDAO membreDAO;
     private final ObservableList<Membre> membresList;
     
@@ -46,7 +58,7 @@ public class MembreController implements Initializable {
     private TableColumn<Membre, String> adresseColumn;
     
     @FXML
-    private TableColumn<Membre, String> dateInscriptionColumn;
+    private TableColumn<Membre, Number> dateInscriptionColumn;
     
     @FXML
     private TextField nomField;
@@ -69,6 +81,15 @@ public class MembreController implements Initializable {
     @FXML
     private TextField searchField;
     
+    @FXML
+    private ProgressIndicator loadingIndicator;
+    
+    // Accès à la base hors du thread JavaFX
+    private TaskRunner loader;
+    
+    // Recherche lancée pendant la frappe
+    private Debouncer searchDebouncer;
+    
     /**
      * Constructeur du contrôleur de membres.
      * Initialise le DAO et la liste observable des membres.
@@ -94,6 +115,7 @@ public class MembreController implements Initializable {
         telephoneColumn.setCellValueFactory(cellData -> cellData.getValue().telephoneProperty());
         adresseColumn.setCellValueFactory(cellData -> cellData.getValue().adresseProperty());
         dateInscriptionColumn.setCellValueFactory(cellData -> cellData.getValue().dateInscriptionProperty());
+        dateInscriptionColumn.setCellFactory(EpochDayTableCell.forTableColumn());
         
         membresTable.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
             if (newSelection != null) {
@@ -103,38 +125,56 @@ public class MembreController implements Initializable {
         
         membresTable.setItems(membresList);
         
+        loader = new TaskRunner(loadingIndicator);
+        searchDebouncer = new Debouncer(this::handleSearch);
+        searchField.textProperty().addListener((obs, oldText, newText) -> searchDebouncer.trigger());
         loadMembres();
+        
+        EventSystem.getInstance().subscribeChanges(this, MembreController::applyChanges);
     }
     
     /**
      * Charge tous les membres depuis la base de données.
      */
     private void loadMembres() {
-        try {
-            membresList.clear();
-            membresList.addAll(membreDAO.findAll());
-        } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors du chargement des membres", e.getMessage());
+        loader.run(membreDAO::findAll, membres -> ListPatcher.patch(membresList, membres, Membre::getId, Membre::copyFrom),
+                e -> showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors du chargement des membres", e.getMessage()));
+    }
+    
+    /**
+     * Applique à la table les modifications de membres publiées par ce client ou par les autres.
+     * Seuls les membres modifiés sont relus ; les nouveaux membres ne sont ajoutés qu'en l'absence de recherche.
+     * 
+     * @param changes Les modifications fusionnées
+     */
+    private void applyChanges(ChangeSet changes) {
+        if (!changes.contains(ChangeEvent.Entity.MEMBRE)) {
+            return;
         }
+        Set<Integer> changedIds = changes.changedIds(ChangeEvent.Entity.MEMBRE);
+        loader.submit(
+                () -> changedIds.isEmpty() ? Map.<Integer, Membre>of() : membreDAO.findByIds(changedIds),
+                membres -> ListPatcher.apply(membresList, membres, changes.deletedIds(ChangeEvent.Entity.MEMBRE),
+                        Membre::getId, Membre::copyFrom, searchField.getText() == null || searchField.getText().trim().isEmpty()),
+                e -> showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors du chargement des membres", e.getMessage()));
     }
     
     /**
-     * Recherche des membres par nom ou prénom.
-     * Méthode appelée par le bouton de recherche dans le FXML.
+     * Recherche approximative des membres par nom, prénom ou email, tolérante aux fautes de frappe.
+     * Méthode appelée par le bouton de recherche dans le FXML, et pendant la frappe une fois la saisie interrompue.
+     * Une recherche remplace la précédente, annulée côté base si elle est encore en cours.
      */
     @FXML
     private void handleSearch() {
+        searchDebouncer.cancel();
         String query = searchField.getText();
-        try {
-            if (query == null || query.trim().isEmpty()) {
-                loadMembres();
-            } else {
-                membresList.clear();
-                membresList.addAll(membreDAO.findByNom(query));
-            }
-        } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors de la recherche des membres", e.getMessage());
+        if (query == null || query.trim().isEmpty()) {
+            loadMembres();
+            return;
         }
+        loader.run(() -> membreDAO.search(query, SEARCH_LIMIT),
+                membres -> ListPatcher.patchOrdered(membresList, membres, Membre::getId, Membre::copyFrom),
+                e -> showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors de la recherche des membres", e.getMessage()));
     }
     
     /**
@@ -143,6 +183,7 @@ public class MembreController implements Initializable {
     @FXML
     private void handleReset() {
         searchField.clear();
+        searchDebouncer.cancel();
         loadMembres();
     }
     
@@ -162,12 +203,8 @@ public class MembreController implements Initializable {
         telephoneField.setText(membre.getTelephone());
         adresseField.setText(membre.getAdresse());
         
-        try {
-            LocalDate date = LocalDate.parse(membre.getDateInscription());
-            dateInscriptionPicker.setValue(date);
-        } catch (Exception e) {
-            dateInscriptionPicker.setValue(LocalDate.now());
-        }
+        LocalDate date = Dates.toLocalDate(membre.getDateInscription());
+        dateInscriptionPicker.setValue(date != null ? date : LocalDate.now());
     }
     
     /**
@@ -198,7 +235,7 @@ public class MembreController implements Initializable {
                 return;
             }
             
-            String dateInscription = dateInscriptionPicker.getValue().format(DateTimeFormatter.ISO_LOCAL_DATE);
+            long dateInscription = Dates.toEpochDay(dateInscriptionPicker.getValue());
             
             Membre membre = new Membre(
                 nomField.getText(),
@@ -215,7 +252,7 @@ public class MembreController implements Initializable {
             
             clearForm();
             
-            EventSystem.getInstance().publish("MEMBRE_MODIFIED", null);
+            EventSystem.getInstance().publishChange(ChangeEvent.Entity.MEMBRE, addedMembre.getId(), ChangeEvent.Kind.INSERT);
             
             showAlert(Alert.AlertType.INFORMATION, "Succès", "Membre ajouté", 
                       "Le membre a été ajouté avec succès.");
@@ -246,7 +283,7 @@ public class MembreController implements Initializable {
                 return;
             }
             
-            String dateInscription = dateInscriptionPicker.getValue().format(DateTimeFormatter.ISO_LOCAL_DATE);
+            long dateInscription = Dates.toEpochDay(dateInscriptionPicker.getValue());
             
             selectedMembre.setNom(nomField.getText());
             selectedMembre.setPrenom(prenomField.getText());
@@ -260,7 +297,7 @@ public class MembreController implements Initializable {
             if (success) {
                 membresTable.refresh();
                 
-                EventSystem.getInstance().publish("MEMBRE_MODIFIED", null);
+                EventSystem.getInstance().publishChange(ChangeEvent.Entity.MEMBRE, selectedMembre.getId(), ChangeEvent.Kind.UPDATE);
                 
                 showAlert(Alert.AlertType.INFORMATION, "Succès", "Membre modifié", 
                           "Le membre a été modifié avec succès.");
@@ -304,7 +341,7 @@ public class MembreController implements Initializable {
                     
                     clearForm();
                     
-                    EventSystem.getInstance().publish("MEMBRE_MODIFIED", null);
+                    EventSystem.getInstance().publishChange(ChangeEvent.Entity.MEMBRE, selectedMembre.getId(), ChangeEvent.Kind.DELETE);
                     
                     showAlert(Alert.AlertType.INFORMATION, "Succès", "Membre supprimé", 
                               "Le membre a été supprimé avec succès.");
@@ -0,0 +1,90 @@
+package dao;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface générique asynchrone pour les opérations CRUD.
+ * Chaque méthode délègue au DAO bloquant correspondant sur un pool de threads
+ * borné par la capacité du pool de connexions, et retourne immédiatement.
+ * Une erreur du DAO termine le futur en échec (CompletionException contenant l'erreur d'origine).
+ * 
+ * @param <T> Type de l'entité
+ */
+public interface AsyncDAO<T> {
+    
+    /**
+     * Insère une nouvelle entité.
+     * 
+     * @param entity L'entité à insérer
+     * @return L'entité insérée avec son ID généré
+     */
+    CompletableFuture<T> insert(T entity);
+    
+    /**
+     * Insère plusieurs entités par lots JDBC.
+     * 
+     * @param entities Les entités à insérer
+     * @return Le résultat du lot
+     */
+    CompletableFuture<BatchResult> insertAll(List<T> entities);
+    
+    /**
+     * Met à jour une entité existante.
+     * 
+     * @param entity L'entité à mettre à jour
+     * @return true si la mise à jour a réussi
+     */
+    CompletableFuture<Boolean> update(T entity);
+    
+    /**
+     * Met à jour plusieurs entités par lots JDBC.
+     * 
+     * @param entities Les entités à mettre à jour
+     * @return Le résultat du lot
+     */
+    CompletableFuture<BatchResult> updateAll(List<T> entities);
+    
+    /**
+     * Supprime une entité par son ID.
+     * 
+     * @param id L'ID de l'entité à supprimer
+     * @return true si la suppression a réussi
+     */
+    CompletableFuture<Boolean> delete(int id);
+    
+    /**
+     * Récupère une entité par son ID.
+     * 
+     * @param id L'ID de l'entité
+     * @return L'entité, ou null si non trouvée
+     */
+    CompletableFuture<T> findById(int id);
+    
+    /**
+     * Récupère plusieurs entités par leurs IDs.
+     * 
+     * @param ids Les IDs des entités
+     * @return Une map ID → entité, sans entrée pour les IDs introuvables
+     */
+    CompletableFuture<Map<Integer, T>> findByIds(Collection<Integer> ids);
+    
+    /**
+     * Récupère toutes les entités.
+     * 
+     * @return Une liste de toutes les entités
+     */
+    CompletableFuture<List<T>> findAll();
+    
+    /**
+     * Récupère une page d'entités, paginée par clé.
+     * 
+     * @param seekToken Le jeton de continuation de la page précédente, ou null pour la première page
+     * @param limit Le nombre maximal d'entités de la page
+     * @param sortColumn La colonne de tri, ou null pour trier par ID
+     * @return La page d'entités et le jeton de la page suivante
+     */
+    CompletableFuture<Page<T>> findPage(String seekToken, int limit, String sortColumn);
+}
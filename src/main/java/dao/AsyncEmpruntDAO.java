@@ -0,0 +1,68 @@
+package dao;
+
+import models.Emprunt;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface DAO asynchrone spécifique pour l'entité Emprunt.
+ * Chaque opération délègue à son équivalent de {@link EmpruntDAO}.
+ */
+public interface AsyncEmpruntDAO extends AsyncDAO<Emprunt> {
+    
+    /**
+     * @see EmpruntDAO#checkout(int, int, long, long)
+     */
+    CompletableFuture<Emprunt> checkout(int livreId, int membreId, long dateEmprunt, long dateRetourPrevue);
+    
+    /**
+     * @see EmpruntDAO#findByLivreId(int)
+     */
+    CompletableFuture<List<Emprunt>> findByLivreId(int livreId);
+    
+    /**
+     * @see EmpruntDAO#findByMembreId(int)
+     */
+    CompletableFuture<List<Emprunt>> findByMembreId(int membreId);
+    
+    /**
+     * @see EmpruntDAO#findAllEnCours()
+     */
+    CompletableFuture<List<Emprunt>> findAllEnCours();
+    
+    /**
+     * @see EmpruntDAO#findEnCoursPage(String, int, String)
+     */
+    CompletableFuture<Page<Emprunt>> findEnCoursPage(String seekToken, int limit, String sortColumn);
+    
+    /**
+     * @see EmpruntDAO#findAllEnRetard()
+     */
+    CompletableFuture<List<Emprunt>> findAllEnRetard();
+    
+    /**
+     * @see EmpruntDAO#retournerEmprunt(int, long)
+     */
+    CompletableFuture<Boolean> retournerEmprunt(int id, long dateRetour);
+    
+    /**
+     * @see EmpruntDAO#retournerEmprunts(Collection<Integer>, long)
+     */
+    CompletableFuture<Integer> retournerEmprunts(Collection<Integer> ids, long dateRetour);
+    
+    /**
+     * @see EmpruntDAO#findAllWithDetails()
+     */
+    CompletableFuture<List<Emprunt>> findAllWithDetails();
+    
+    /**
+     * @see EmpruntDAO#findSortedIds(String, boolean)
+     */
+    CompletableFuture<int[]> findSortedIds(String sortColumn, boolean descending);
+    
+    /**
+     * @see EmpruntDAO#search(String, int)
+     */
+    CompletableFuture<List<Emprunt>> search(String query, int limit);
+}
@@ -0,0 +1,47 @@
+package dao;
+
+import models.Livre;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface DAO asynchrone spécifique pour l'entité Livre.
+ * Chaque opération délègue à son équivalent de {@link LivreDAO}.
+ */
+public interface AsyncLivreDAO extends AsyncDAO<Livre> {
+    
+    /**
+     * @see LivreDAO#findByTitre(String)
+     */
+    CompletableFuture<List<Livre>> findByTitre(String titre);
+    
+    /**
+     * @see LivreDAO#findByISBN(String)
+     */
+    CompletableFuture<Livre> findByISBN(String isbn);
+    
+    /**
+     * @see LivreDAO#findByAuteur(String)
+     */
+    CompletableFuture<List<Livre>> findByAuteur(String auteur);
+    
+    /**
+     * @see LivreDAO#findAllAvailable()
+     */
+    CompletableFuture<List<Livre>> findAllAvailable();
+    
+    /**
+     * @see LivreDAO#findAvailablePage(String, int, String)
+     */
+    CompletableFuture<Page<Livre>> findAvailablePage(String seekToken, int limit, String sortColumn);
+    
+    /**
+     * @see LivreDAO#updateDisponibilite(int, boolean)
+     */
+    CompletableFuture<Boolean> updateDisponibilite(int id, boolean disponible);
+    
+    /**
+     * @see LivreDAO#search(String, int)
+     */
+    CompletableFuture<List<Livre>> search(String query, int limit);
+}
@@ -0,0 +1,37 @@
+package dao;
+
+import models.Membre;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface DAO asynchrone spécifique pour l'entité Membre.
+ * Chaque opération délègue à son équivalent de {@link MembreDAO}.
+ */
+public interface AsyncMembreDAO extends AsyncDAO<Membre> {
+    
+    /**
+     * @see MembreDAO#findByNom(String)
+     */
+    CompletableFuture<List<Membre>> findByNom(String nom);
+    
+    /**
+     * @see MembreDAO#findByNomPage(String, String, int, String)
+     */
+    CompletableFuture<Page<Membre>> findByNomPage(String nom, String seekToken, int limit, String sortColumn);
+    
+    /**
+     * @see MembreDAO#findByEmail(String)
+     */
+    CompletableFuture<Membre> findByEmail(String email);
+    
+    /**
+     * @see MembreDAO#findByNomComplet(String, String)
+     */
+    CompletableFuture<List<Membre>> findByNomComplet(String nom, String prenom);
+    
+    /**
+     * @see MembreDAO#search(String, int)
+     */
+    CompletableFuture<List<Membre>> search(String query, int limit);
+}
@@ -0,0 +1,80 @@
+package dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Résultat d'une opération d'insertion ou de mise à jour par lots.
+ * Les lignes en échec sont signalées individuellement sans interrompre le reste du lot.
+ */
+public class BatchResult {
+    
+    private final int[] ids;
+    private final Map<Integer, Exception> failures;
+    
+    /**
+     * Constructeur.
+     * 
+     * @param ids Les IDs des entités, dans l'ordre de la liste d'origine (0 pour une ligne en échec)
+     * @param failures Les erreurs rencontrées, indexées par position dans la liste d'origine
+     */
+    public BatchResult(int[] ids, Map<Integer, Exception> failures) {
+        this.ids = ids;
+        this.failures = Collections.unmodifiableMap(new TreeMap<>(failures));
+    }
+    
+    /**
+     * Retourne les IDs des entités traitées, dans l'ordre de la liste d'origine.
+     * Pour une insertion, il s'agit des IDs générés ; une ligne en échec vaut 0.
+     * 
+     * @return Une copie du tableau des IDs
+     */
+    public int[] getIds() {
+        return ids.clone();
+    }
+    
+    /**
+     * Retourne les IDs des lignes traitées avec succès, dans l'ordre de la liste d'origine.
+     * 
+     * @return Les IDs des succès
+     */
+    public List<Integer> getSuccessIds() {
+        List<Integer> successIds = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            if (!failures.containsKey(i)) {
+                successIds.add(ids[i]);
+            }
+        }
+        return successIds;
+    }
+    
+    /**
+     * Retourne les erreurs rencontrées, indexées par position dans la liste d'origine.
+     * 
+     * @return Les erreurs par ligne
+     */
+    public Map<Integer, Exception> getFailures() {
+        return failures;
+    }
+    
+    /**
+     * Retourne le nombre de lignes traitées avec succès.
+     * 
+     * @return Le nombre de succès
+     */
+    public int getSuccessCount() {
+        return ids.length - failures.size();
+    }
+    
+    /**
+     * Indique si au moins une ligne a échoué.
+     * 
+     * @return true si une ligne a échoué, false sinon
+     */
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+}
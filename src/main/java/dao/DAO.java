@@ -1,6 +1,9 @@
 package dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Interface générique pour les opérations CRUD.
@@ -18,6 +21,19 @@ public interface DAO<T> {
      */
     T insert(T entity) throws Exception;
     
+    /**
+     * Insère plusieurs entités par lots JDBC.
+     * Les IDs générés sont affectés aux entités et renvoyés dans l'ordre de la liste.
+     * Une ligne en échec est signalée dans le résultat sans interrompre les autres.
+     * Les lignes sont validées par lots : si un lot échoue dans son ensemble, par exemple sur une
+     * perte de connexion, seules ses lignes sont annulées et signalées en échec.
+     * 
+     * @param entities Les entités à insérer
+     * @return Le résultat du lot : IDs générés et erreurs par ligne
+     * @throws Exception Si aucune connexion n'a pu être obtenue
+     */
+    BatchResult insertAll(List<T> entities) throws Exception;
+    
     /**
      * Met à jour une entité existante dans la base de données.
      * 
@@ -27,6 +43,18 @@ public interface DAO<T> {
      */
     boolean update(T entity) throws Exception;
     
+    /**
+     * Met à jour plusieurs entités par lots JDBC.
+     * Une ligne en échec ou introuvable est signalée dans le résultat sans interrompre les autres.
+     * Les lignes sont validées par lots : si un lot échoue dans son ensemble, par exemple sur une
+     * perte de connexion, seules ses lignes sont annulées et signalées en échec.
+     * 
+     * @param entities Les entités à mettre à jour
+     * @return Le résultat du lot : IDs mis à jour et erreurs par ligne
+     * @throws Exception Si aucune connexion n'a pu être obtenue
+     */
+    BatchResult updateAll(List<T> entities) throws Exception;
+    
     /**
      * Supprime une entité de la base de données par son ID.
      * 
@@ -45,6 +73,16 @@ public interface DAO<T> {
      */
     T findById(int id) throws Exception;
     
+    /**
+     * Récupère plusieurs entités par leurs IDs.
+     * Les IDs sont résolus par lots au moyen de requêtes IN (...).
+     * 
+     * @param ids Les IDs des entités à récupérer
+     * @return Une map ID → entité, sans entrée pour les IDs introuvables
+     * @throws Exception En cas d'erreur lors de la récupération
+     */
+    Map<Integer, T> findByIds(Collection<Integer> ids) throws Exception;
+    
     /**
      * Récupère toutes les entités.
      * 
@@ -52,4 +90,25 @@ public interface DAO<T> {
      * @throws Exception En cas d'erreur lors de la récupération
      */
     List<T> findAll() throws Exception;
+    
+    /**
+     * Parcourt toutes les entités sans les charger en mémoire.
+     * Le flux détient une connexion jusqu'à sa fermeture et doit être utilisé
+     * dans un bloc try-with-resources.
+     * 
+     * @return Un flux de toutes les entités, à fermer par l'appelant
+     * @throws Exception En cas d'erreur lors de l'ouverture du flux
+     */
+    Stream<T> streamAll() throws Exception;
+    
+    /**
+     * Récupère une page d'entités, paginée par clé plutôt que par OFFSET.
+     * 
+     * @param seekToken Le jeton de continuation de la page précédente, ou null pour la première page
+     * @param limit Le nombre maximal d'entités de la page
+     * @param sortColumn La colonne de tri, ou null pour trier par ID
+     * @return La page d'entités et le jeton de la page suivante
+     * @throws Exception En cas d'erreur lors de la récupération
+     */
+    Page<T> findPage(String seekToken, int limit, String sortColumn) throws Exception;
 }
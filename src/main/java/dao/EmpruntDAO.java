@@ -1,13 +1,29 @@
 package dao;
 
 import models.Emprunt;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Interface DAO spécifique pour l'entité Emprunt.
  */
 public interface EmpruntDAO extends DAO<Emprunt> {
     
+    /**
+     * Enregistre un emprunt si le livre est disponible.
+     * Le livre est marqué indisponible et l'emprunt inséré dans une même transaction :
+     * deux emprunts simultanés du même livre ne peuvent pas réussir tous les deux.
+     * 
+     * @param livreId L'ID du livre
+     * @param membreId L'ID du membre
+     * @param dateEmprunt La date d'emprunt, en jours depuis le 1970-01-01
+     * @param dateRetourPrevue La date de retour prévue, en jours depuis le 1970-01-01
+     * @return L'emprunt créé avec son ID, ou null si le livre n'est pas disponible
+     * @throws Exception En cas d'erreur lors de l'enregistrement
+     */
+    Emprunt checkout(int livreId, int membreId, long dateEmprunt, long dateRetourPrevue) throws Exception;
+    
     /**
      * Recherche des emprunts par ID de livre.
      * 
@@ -34,6 +50,17 @@ public interface EmpruntDAO extends DAO<Emprunt> {
      */
     List<Emprunt> findAllEnCours() throws Exception;
     
+    /**
+     * Récupère une page d'emprunts en cours (non retournés).
+     * 
+     * @param seekToken Le jeton de continuation de la page précédente, ou null pour la première page
+     * @param limit Le nombre maximal d'emprunts de la page
+     * @param sortColumn La colonne de tri, ou null pour trier par ID
+     * @return La page d'emprunts en cours
+     * @throws Exception En cas d'erreur lors de la recherche
+     */
+    Page<Emprunt> findEnCoursPage(String seekToken, int limit, String sortColumn) throws Exception;
+    
     /**
      * Recherche des emprunts en retard.
      * 
@@ -46,11 +73,22 @@ public interface EmpruntDAO extends DAO<Emprunt> {
      * Enregistre le retour d'un emprunt.
      * 
      * @param id L'ID de l'emprunt
-     * @param dateRetour La date de retour
+     * @param dateRetour La date de retour, en jours depuis le 1970-01-01
      * @return true si la mise à jour a réussi, false sinon
      * @throws Exception En cas d'erreur lors de la mise à jour
      */
-    boolean retournerEmprunt(int id, String dateRetour) throws Exception;
+    boolean retournerEmprunt(int id, long dateRetour) throws Exception;
+    
+    /**
+     * Enregistre le retour de plusieurs emprunts en une seule transaction.
+     * Les emprunts déjà retournés ou inexistants sont ignorés.
+     * 
+     * @param ids Les IDs des emprunts
+     * @param dateRetour La date de retour, en jours depuis le 1970-01-01
+     * @return Le nombre d'emprunts effectivement retournés
+     * @throws Exception En cas d'erreur lors de la mise à jour
+     */
+    int retournerEmprunts(Collection<Integer> ids, long dateRetour) throws Exception;
     
     /**
      * Récupère les emprunts avec les informations complètes des livres et membres associés.
@@ -59,4 +97,35 @@ public interface EmpruntDAO extends DAO<Emprunt> {
      * @throws Exception En cas d'erreur lors de la récupération
      */
     List<Emprunt> findAllWithDetails() throws Exception;
+    
+    /**
+     * Parcourt les emprunts avec les informations complètes des livres et membres associés,
+     * sans les charger en mémoire.
+     * 
+     * @return Un flux des emprunts avec informations complètes, à fermer par l'appelant
+     * @throws Exception En cas d'erreur lors de l'ouverture du flux
+     */
+    Stream<Emprunt> streamAllWithDetails() throws Exception;
+    
+    /**
+     * Récupère les IDs de tous les emprunts dans l'ordre d'affichage, sans charger les emprunts.
+     * Colonnes de tri autorisées : id, livre, membre, date_emprunt, date_retour_prevue, date_retour_reelle.
+     * 
+     * @param sortColumn La colonne de tri, ou null pour trier par ID
+     * @param descending true pour un tri décroissant
+     * @return Les IDs triés
+     * @throws Exception En cas d'erreur lors de la récupération
+     */
+    int[] findSortedIds(String sortColumn, boolean descending) throws Exception;
+    
+    /**
+     * Recherche les emprunts par titre du livre, nom ou prénom du membre, ou date (AAAA, AAAA-MM ou AAAA-MM-JJ).
+     * Le filtre est appliqué par la base.
+     * 
+     * @param query La saisie
+     * @param limit Le nombre maximal d'emprunts renvoyés
+     * @return Les emprunts trouvés avec leur livre et leur membre, les plus récents d'abord
+     * @throws Exception En cas d'erreur lors de la recherche
+     */
+    List<Emprunt> search(String query, int limit) throws Exception;
 }
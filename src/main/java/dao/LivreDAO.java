@@ -43,6 +43,17 @@ public interface LivreDAO extends DAO<Livre> {
      */
     List<Livre> findAllAvailable() throws Exception;
     
+    /**
+     * Récupère une page de livres disponibles.
+     * 
+     * @param seekToken Le jeton de continuation de la page précédente, ou null pour la première page
+     * @param limit Le nombre maximal de livres de la page
+     * @param sortColumn La colonne de tri, ou null pour trier par ID
+     * @return La page de livres disponibles
+     * @throws Exception En cas d'erreur lors de la recherche
+     */
+    Page<Livre> findAvailablePage(String seekToken, int limit, String sortColumn) throws Exception;
+    
     /**
      * Met à jour la disponibilité d'un livre.
      * 
@@ -52,4 +63,14 @@ public interface LivreDAO extends DAO<Livre> {
      * @throws Exception En cas d'erreur lors de la mise à jour
      */
     boolean updateDisponibilite(int id, boolean disponible) throws Exception;
+    
+    /**
+     * Recherche des livres par titre, auteur, éditeur ou ISBN, sans tenir compte des accents ni de la casse.
+     * 
+     * @param query La saisie
+     * @param limit Le nombre maximal de livres renvoyés
+     * @return Les livres trouvés, sans doublon, du plus pertinent au moins pertinent
+     * @throws Exception En cas d'erreur lors de la recherche
+     */
+    List<Livre> search(String query, int limit) throws Exception;
 }
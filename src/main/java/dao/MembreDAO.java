@@ -17,6 +17,18 @@ public interface MembreDAO extends DAO<Membre> {
      */
     List<Membre> findByNom(String nom) throws Exception;
     
+    /**
+     * Recherche une page de membres par nom.
+     * 
+     * @param nom Le nom à rechercher
+     * @param seekToken Le jeton de continuation de la page précédente, ou null pour la première page
+     * @param limit Le nombre maximal de membres de la page
+     * @param sortColumn La colonne de tri, ou null pour trier par ID
+     * @return La page de membres correspondant au nom
+     * @throws Exception En cas d'erreur lors de la recherche
+     */
+    Page<Membre> findByNomPage(String nom, String seekToken, int limit, String sortColumn) throws Exception;
+    
     /**
      * Recherche un membre par email.
      * 
@@ -35,4 +47,14 @@ public interface MembreDAO extends DAO<Membre> {
      * @throws Exception En cas d'erreur lors de la recherche
      */
     List<Membre> findByNomComplet(String nom, String prenom) throws Exception;
+    
+    /**
+     * Recherche approximative des membres par nom, prénom ou email, tolérante aux fautes de frappe.
+     * 
+     * @param query La saisie
+     * @param limit Le nombre maximal de membres renvoyés
+     * @return Les membres trouvés, du plus proche au moins proche
+     * @throws Exception En cas d'erreur lors de la recherche
+     */
+    List<Membre> search(String query, int limit) throws Exception;
 }
@@ -0,0 +1,43 @@
+package dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page de résultats d'une requête paginée par clé (keyset).
+ * 
+ * @param <T> Type des entités de la page
+ */
+public class Page<T> {
+    
+    private final List<T> items;
+    private final String nextToken;
+    
+    /**
+     * Constructeur.
+     * 
+     * @param items Les entités de la page
+     * @param nextToken Le jeton permettant d'obtenir la page suivante, ou null s'il s'agit de la dernière
+     */
+    public Page(List<T> items, String nextToken) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextToken = nextToken;
+    }
+    
+    public List<T> getItems() {
+        return items;
+    }
+    
+    public String getNextToken() {
+        return nextToken;
+    }
+    
+    /**
+     * Indique s'il existe une page suivante.
+     * 
+     * @return true si une page suivante existe, false sinon
+     */
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+}
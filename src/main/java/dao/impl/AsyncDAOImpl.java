@@ -0,0 +1,115 @@
+package dao.impl;
+
+import dao.AsyncDAO;
+import dao.BatchResult;
+import dao.DAO;
+import dao.Page;
+import utils.DatabaseConnection;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base des DAO asynchrones : chaque appel est délégué au DAO bloquant sur un pool
+ * de threads partagé, dimensionné sur la capacité du pool de connexions.
+ * Au-delà, les appels attendent dans la file du pool de threads plutôt que de bloquer
+ * des threads en attente d'une connexion.
+ *
+ * @param <T> Type de l'entité
+ * @param <D> Type du DAO bloquant
+ */
+public abstract class AsyncDAOImpl<T, D extends DAO<T>> implements AsyncDAO<T> {
+
+    private static final ExecutorService EXECUTOR;
+
+    static {
+        AtomicInteger threadCount = new AtomicInteger();
+        EXECUTOR = Executors.newFixedThreadPool(DatabaseConnection.getPoolSize(), r -> {
+            Thread thread = new Thread(r, "dao-async-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    protected final D dao;
+
+    /**
+     * Constructeur.
+     *
+     * @param dao Le DAO bloquant auquel déléguer
+     */
+    protected AsyncDAOImpl(D dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * Exécute un appel au DAO bloquant sur le pool de threads.
+     *
+     * @param call L'appel à exécuter
+     * @param <R> Type du résultat
+     * @return Le futur du résultat, en échec avec l'erreur du DAO le cas échéant
+     */
+    protected static <R> CompletableFuture<R> supply(Callable<R> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, EXECUTOR);
+    }
+
+    @Override
+    public CompletableFuture<T> insert(T entity) {
+        return supply(() -> dao.insert(entity));
+    }
+
+    @Override
+    public CompletableFuture<BatchResult> insertAll(List<T> entities) {
+        return supply(() -> dao.insertAll(entities));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> update(T entity) {
+        return supply(() -> dao.update(entity));
+    }
+
+    @Override
+    public CompletableFuture<BatchResult> updateAll(List<T> entities) {
+        return supply(() -> dao.updateAll(entities));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> delete(int id) {
+        return supply(() -> dao.delete(id));
+    }
+
+    @Override
+    public CompletableFuture<T> findById(int id) {
+        return supply(() -> dao.findById(id));
+    }
+
+    @Override
+    public CompletableFuture<Map<Integer, T>> findByIds(Collection<Integer> ids) {
+        return supply(() -> dao.findByIds(ids));
+    }
+
+    @Override
+    public CompletableFuture<List<T>> findAll() {
+        return supply(dao::findAll);
+    }
+
+    @Override
+    public CompletableFuture<Page<T>> findPage(String seekToken, int limit, String sortColumn) {
+        return supply(() -> dao.findPage(seekToken, limit, sortColumn));
+    }
+}
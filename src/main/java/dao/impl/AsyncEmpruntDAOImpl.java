@@ -0,0 +1,80 @@
+package dao.impl;
+
+import dao.AsyncEmpruntDAO;
+import dao.EmpruntDAO;
+import dao.Page;
+import models.Emprunt;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implémentation asynchrone de l'interface AsyncEmpruntDAO.
+ */
+public class AsyncEmpruntDAOImpl extends AsyncDAOImpl<Emprunt, EmpruntDAO> implements AsyncEmpruntDAO {
+
+    /**
+     * Constructeur.
+     *
+     * @param dao Le DAO bloquant des emprunts
+     */
+    public AsyncEmpruntDAOImpl(EmpruntDAO dao) {
+        super(dao);
+    }
+
+    @Override
+    public CompletableFuture<Emprunt> checkout(int livreId, int membreId, long dateEmprunt, long dateRetourPrevue) {
+        return supply(() -> dao.checkout(livreId, membreId, dateEmprunt, dateRetourPrevue));
+    }
+
+    @Override
+    public CompletableFuture<List<Emprunt>> findByLivreId(int livreId) {
+        return supply(() -> dao.findByLivreId(livreId));
+    }
+
+    @Override
+    public CompletableFuture<List<Emprunt>> findByMembreId(int membreId) {
+        return supply(() -> dao.findByMembreId(membreId));
+    }
+
+    @Override
+    public CompletableFuture<List<Emprunt>> findAllEnCours() {
+        return supply(dao::findAllEnCours);
+    }
+
+    @Override
+    public CompletableFuture<Page<Emprunt>> findEnCoursPage(String seekToken, int limit, String sortColumn) {
+        return supply(() -> dao.findEnCoursPage(seekToken, limit, sortColumn));
+    }
+
+    @Override
+    public CompletableFuture<List<Emprunt>> findAllEnRetard() {
+        return supply(dao::findAllEnRetard);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> retournerEmprunt(int id, long dateRetour) {
+        return supply(() -> dao.retournerEmprunt(id, dateRetour));
+    }
+
+    @Override
+    public CompletableFuture<Integer> retournerEmprunts(Collection<Integer> ids, long dateRetour) {
+        return supply(() -> dao.retournerEmprunts(ids, dateRetour));
+    }
+
+    @Override
+    public CompletableFuture<List<Emprunt>> findAllWithDetails() {
+        return supply(dao::findAllWithDetails);
+    }
+
+    @Override
+    public CompletableFuture<int[]> findSortedIds(String sortColumn, boolean descending) {
+        return supply(() -> dao.findSortedIds(sortColumn, descending));
+    }
+
+    @Override
+    public CompletableFuture<List<Emprunt>> search(String query, int limit) {
+        return supply(() -> dao.search(query, limit));
+    }
+}
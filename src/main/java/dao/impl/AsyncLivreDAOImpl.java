@@ -0,0 +1,59 @@
+package dao.impl;
+
+import dao.AsyncLivreDAO;
+import dao.LivreDAO;
+import dao.Page;
+import models.Livre;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implémentation asynchrone de l'interface AsyncLivreDAO.
+ */
+public class AsyncLivreDAOImpl extends AsyncDAOImpl<Livre, LivreDAO> implements AsyncLivreDAO {
+
+    /**
+     * Constructeur.
+     *
+     * @param dao Le DAO bloquant des livres
+     */
+    public AsyncLivreDAOImpl(LivreDAO dao) {
+        super(dao);
+    }
+
+    @Override
+    public CompletableFuture<List<Livre>> findByTitre(String titre) {
+        return supply(() -> dao.findByTitre(titre));
+    }
+
+    @Override
+    public CompletableFuture<Livre> findByISBN(String isbn) {
+        return supply(() -> dao.findByISBN(isbn));
+    }
+
+    @Override
+    public CompletableFuture<List<Livre>> findByAuteur(String auteur) {
+        return supply(() -> dao.findByAuteur(auteur));
+    }
+
+    @Override
+    public CompletableFuture<List<Livre>> findAllAvailable() {
+        return supply(dao::findAllAvailable);
+    }
+
+    @Override
+    public CompletableFuture<Page<Livre>> findAvailablePage(String seekToken, int limit, String sortColumn) {
+        return supply(() -> dao.findAvailablePage(seekToken, limit, sortColumn));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateDisponibilite(int id, boolean disponible) {
+        return supply(() -> dao.updateDisponibilite(id, disponible));
+    }
+
+    @Override
+    public CompletableFuture<List<Livre>> search(String query, int limit) {
+        return supply(() -> dao.search(query, limit));
+    }
+}
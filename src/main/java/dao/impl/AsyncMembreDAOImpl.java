@@ -0,0 +1,49 @@
+package dao.impl;
+
+import dao.AsyncMembreDAO;
+import dao.MembreDAO;
+import dao.Page;
+import models.Membre;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implémentation asynchrone de l'interface AsyncMembreDAO.
+ */
+public class AsyncMembreDAOImpl extends AsyncDAOImpl<Membre, MembreDAO> implements AsyncMembreDAO {
+
+    /**
+     * Constructeur.
+     *
+     * @param dao Le DAO bloquant des membres
+     */
+    public AsyncMembreDAOImpl(MembreDAO dao) {
+        super(dao);
+    }
+
+    @Override
+    public CompletableFuture<List<Membre>> findByNom(String nom) {
+        return supply(() -> dao.findByNom(nom));
+    }
+
+    @Override
+    public CompletableFuture<Page<Membre>> findByNomPage(String nom, String seekToken, int limit, String sortColumn) {
+        return supply(() -> dao.findByNomPage(nom, seekToken, limit, sortColumn));
+    }
+
+    @Override
+    public CompletableFuture<Membre> findByEmail(String email) {
+        return supply(() -> dao.findByEmail(email));
+    }
+
+    @Override
+    public CompletableFuture<List<Membre>> findByNomComplet(String nom, String prenom) {
+        return supply(() -> dao.findByNomComplet(nom, prenom));
+    }
+
+    @Override
+    public CompletableFuture<List<Membre>> search(String query, int limit) {
+        return supply(() -> dao.search(query, limit));
+    }
+}
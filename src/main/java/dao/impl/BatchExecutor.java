@@ -0,0 +1,244 @@
+package dao.impl;
+
+import dao.BatchResult;
+import utils.Config;
+import utils.DatabaseConnection;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Exécution par lots JDBC des insertions et mises à jour en masse.
+ * Chaque lot est envoyé dans une transaction, avec l'inscription au journal des modifications
+ * de ses lignes réussies ; si le lot échoue, il est annulé puis rejoué ligne par ligne dans la
+ * même transaction afin d'isoler les lignes fautives sans perdre les autres.
+ * <p>
+ * Si un lot échoue dans son ensemble (connexion perdue, erreur du journal...), il est annulé et
+ * ses lignes sont signalées en échec avec cette erreur ; les autres lots sont validés ou non
+ * indépendamment, et les lignes validées figurent dans le résultat avec leurs IDs.
+ */
+final class BatchExecutor {
+    
+    /**
+     * Nombre de lignes par lot, configurable par DB_BATCH_SIZE.
+     */
+    static final int BATCH_SIZE = Math.max(1, Config.getInt("DB_BATCH_SIZE", 500));
+    
+    private BatchExecutor() {
+        // Classe utilitaire, pas d'instance
+    }
+    
+    /**
+     * Insère des entités par lots et récupère leurs IDs générés.
+     * 
+     * @param <T> Type des entités
+     * @param sql La requête INSERT
+     * @param entities Les entités à insérer
+     * @param binder La fonction positionnant les paramètres d'une entité
+     * @param idSetter La fonction affectant l'ID généré à une entité
+     * @param changeLogEntity Le type d'entité inscrit au journal des modifications
+     * @return Le résultat : IDs des lignes validées et erreurs par ligne, y compris celles des lots annulés
+     * @throws SQLException Si aucune connexion n'a pu être obtenue
+     */
+    static <T> BatchResult insert(String sql, List<T> entities, ParameterBinder<T> binder,
+                                  IdSetter<T> idSetter, String changeLogEntity) throws SQLException {
+        return execute(sql, entities, binder, true, idSetter, null, changeLogEntity, ChangeLog.INSERT);
+    }
+    
+    /**
+     * Met à jour des entités par lots.
+     * Une entité dont la mise à jour n'affecte aucune ligne est signalée en échec.
+     * 
+     * @param <T> Type des entités
+     * @param sql La requête UPDATE
+     * @param entities Les entités à mettre à jour
+     * @param binder La fonction positionnant les paramètres d'une entité
+     * @param idGetter La fonction donnant l'ID d'une entité
+     * @param changeLogEntity Le type d'entité inscrit au journal des modifications
+     * @return Le résultat : IDs des lignes validées et erreurs par ligne, y compris celles des lots annulés
+     * @throws SQLException Si aucune connexion n'a pu être obtenue
+     */
+    static <T> BatchResult update(String sql, List<T> entities, ParameterBinder<T> binder,
+                                  ToIntFunction<T> idGetter, String changeLogEntity) throws SQLException {
+        return execute(sql, entities, binder, false, null, idGetter, changeLogEntity, ChangeLog.UPDATE);
+    }
+    
+    private static <T> BatchResult execute(String sql, List<T> entities, ParameterBinder<T> binder, boolean generatedKeys,
+                                           IdSetter<T> idSetter, ToIntFunction<T> idGetter,
+                                           String changeLogEntity, String changeLogKind) throws SQLException {
+        int[] ids = new int[entities.size()];
+        Map<Integer, Exception> failures = new HashMap<>();
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = generatedKeys
+                     ? conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                     : conn.prepareStatement(sql)) {
+            
+            for (int start = 0; start < entities.size(); start += BATCH_SIZE) {
+                int end = Math.min(start + BATCH_SIZE, entities.size());
+                List<Integer> batched = new ArrayList<>(end - start);
+                
+                for (int i = start; i < end; i++) {
+                    try {
+                        binder.bind(pstmt, entities.get(i));
+                        pstmt.addBatch();
+                        batched.add(i);
+                    } catch (SQLException | RuntimeException e) {
+                        pstmt.clearParameters();
+                        failures.put(i, e);
+                    }
+                }
+                
+                if (batched.isEmpty()) {
+                    continue;
+                }
+                
+                // IDs des lignes réussies et erreurs du lot, reportés dans le résultat une fois le lot validé
+                Map<Integer, Integer> succeeded = new LinkedHashMap<>();
+                Map<Integer, Exception> chunkFailures = new HashMap<>();
+                
+                try {
+                    conn.setAutoCommit(false);
+                    int[] counts;
+                    List<Integer> keys = null;
+                    try {
+                        counts = pstmt.executeBatch();
+                        if (generatedKeys) {
+                            keys = readKeys(pstmt);
+                        }
+                    } catch (BatchUpdateException e) {
+                        counts = null;
+                    }
+                    
+                    if (counts == null || (keys != null && keys.size() != batched.size())) {
+                        conn.rollback();
+                        pstmt.clearBatch();
+                        executeOneByOne(conn, pstmt, entities, batched, binder, generatedKeys, idGetter, succeeded, chunkFailures);
+                    } else {
+                        for (int k = 0; k < batched.size(); k++) {
+                            int index = batched.get(k);
+                            T entity = entities.get(index);
+                            if (generatedKeys) {
+                                succeeded.put(index, keys.get(k));
+                            } else if (counts.length == batched.size() && counts[k] == 0) {
+                                chunkFailures.put(index, new SQLException("Aucune ligne mise à jour pour l'ID " + idGetter.applyAsInt(entity) + "."));
+                            } else {
+                                succeeded.put(index, idGetter.applyAsInt(entity));
+                            }
+                        }
+                    }
+                    
+                    ChangeLog.record(conn, changeLogEntity, changeLogKind, succeeded.values());
+                    conn.commit();
+                    conn.setAutoCommit(true);
+                } catch (SQLException | RuntimeException e) {
+                    // Sans annulation, le retour en autocommit validerait le lot en cours
+                    abort(conn, e);
+                    for (int index : batched) {
+                        failures.put(index, e);
+                    }
+                    continue;
+                }
+                
+                for (Map.Entry<Integer, Integer> entry : succeeded.entrySet()) {
+                    ids[entry.getKey()] = entry.getValue();
+                    if (generatedKeys) {
+                        idSetter.setId(entities.get(entry.getKey()), entry.getValue());
+                    }
+                }
+                failures.putAll(chunkFailures);
+            }
+        }
+        
+        return new BatchResult(ids, failures);
+    }
+    
+    /**
+     * Rejoue les lignes d'un lot en échec une par une, dans la transaction du lot :
+     * une ligne fautive est annulée seule, jusqu'à son point de sauvegarde.
+     */
+    private static <T> void executeOneByOne(Connection conn, PreparedStatement pstmt, List<T> entities, List<Integer> indexes,
+                                            ParameterBinder<T> binder, boolean generatedKeys, ToIntFunction<T> idGetter,
+                                            Map<Integer, Integer> succeeded, Map<Integer, Exception> failures) throws SQLException {
+        for (int index : indexes) {
+            T entity = entities.get(index);
+            // Même nom à chaque ligne : MySQL remplace le point de sauvegarde précédent
+            Savepoint savepoint = conn.setSavepoint("ligne");
+            try {
+                binder.bind(pstmt, entity);
+                int affectedRows = pstmt.executeUpdate();
+                
+                if (generatedKeys) {
+                    List<Integer> keys = readKeys(pstmt);
+                    if (keys.isEmpty()) {
+                        throw new SQLException("La création a échoué, aucun ID obtenu.");
+                    }
+                    succeeded.put(index, keys.get(0));
+                } else if (affectedRows == 0) {
+                    throw new SQLException("Aucune ligne mise à jour pour l'ID " + idGetter.applyAsInt(entity) + ".");
+                } else {
+                    succeeded.put(index, idGetter.applyAsInt(entity));
+                }
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback(savepoint);
+                failures.put(index, e);
+            }
+        }
+    }
+    
+    /**
+     * Annule le lot en cours après une erreur, sans masquer celle-ci par une erreur d'annulation.
+     */
+    private static void abort(Connection conn, Exception e) {
+        try {
+            conn.rollback();
+            conn.setAutoCommit(true);
+        } catch (SQLException rollbackError) {
+            e.addSuppressed(rollbackError);
+        }
+    }
+    
+    /**
+     * Lit les clés générées par la dernière exécution.
+     */
+    private static List<Integer> readKeys(PreparedStatement pstmt) throws SQLException {
+        List<Integer> keys = new ArrayList<>();
+        try (ResultSet rs = pstmt.getGeneratedKeys()) {
+            while (rs.next()) {
+                keys.add(rs.getInt(1));
+            }
+        }
+        return keys;
+    }
+    
+    /**
+     * Positionne les paramètres d'une requête à partir d'une entité.
+     * 
+     * @param <T> Type de l'entité
+     */
+    @FunctionalInterface
+    interface ParameterBinder<T> {
+        void bind(PreparedStatement pstmt, T entity) throws SQLException;
+    }
+    
+    /**
+     * Affecte l'ID généré à une entité insérée.
+     * 
+     * @param <T> Type de l'entité
+     */
+    @FunctionalInterface
+    interface IdSetter<T> {
+        void setId(T entity, int id);
+    }
+}
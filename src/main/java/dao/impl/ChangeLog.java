@@ -0,0 +1,90 @@
+package dao.impl;
+
+import utils.ChangeEvent;
+import utils.Config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Écriture du journal des modifications (table change_log).
+ * Les DAO y inscrivent chaque entité modifiée, avec l'identifiant de ce client,
+ * afin que les autres clients puissent invalider leurs caches et rafraîchir leurs vues.
+ * Le journal est écrit dans la transaction de l'opération : une erreur d'écriture du journal
+ * fait échouer l'opération, qui est annulée, plutôt que de laisser les autres clients sans nouvelles.
+ */
+final class ChangeLog {
+
+    // Valeurs des colonnes entity et kind, lues par ChangeLogPoller avec ChangeEvent.Entity/Kind.valueOf
+    static final String LIVRE = ChangeEvent.Entity.LIVRE.name();
+    static final String MEMBRE = ChangeEvent.Entity.MEMBRE.name();
+    static final String EMPRUNT = ChangeEvent.Entity.EMPRUNT.name();
+
+    static final String INSERT = ChangeEvent.Kind.INSERT.name();
+    static final String UPDATE = ChangeEvent.Kind.UPDATE.name();
+    static final String DELETE = ChangeEvent.Kind.DELETE.name();
+    static final String DISPONIBILITE = ChangeEvent.Kind.DISPONIBILITE.name();
+
+    /**
+     * Identifiant de ce client, pour ignorer ses propres modifications à la lecture du journal.
+     */
+    static final String CLIENT_ID = UUID.randomUUID().toString();
+
+    static final boolean ENABLED = Config.getBoolean("CHANGE_LOG_ENABLED", true);
+
+    private static final String INSERT_SQL = "INSERT INTO change_log (entity, entity_id, kind, client_id) VALUES (?, ?, ?, ?)";
+
+    private ChangeLog() {
+        // Classe utilitaire, pas d'instance
+    }
+
+    /**
+     * Inscrit la modification d'une entité.
+     *
+     * @param conn La connexion de l'opération, pour rester dans sa transaction
+     * @param entity Le type d'entité (LIVRE, MEMBRE, EMPRUNT)
+     * @param kind Le type de modification
+     * @param id L'ID de l'entité
+     * @throws SQLException En cas d'erreur lors de l'écriture du journal
+     */
+    static void record(Connection conn, String entity, String kind, int id) throws SQLException {
+        if (!ENABLED) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            pstmt.setString(1, entity);
+            pstmt.setInt(2, id);
+            pstmt.setString(3, kind);
+            pstmt.setString(4, CLIENT_ID);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Inscrit la modification de plusieurs entités du même type en un seul lot.
+     *
+     * @param conn La connexion de l'opération
+     * @param entity Le type d'entité
+     * @param kind Le type de modification
+     * @param ids Les IDs des entités
+     * @throws SQLException En cas d'erreur lors de l'écriture du journal
+     */
+    static void record(Connection conn, String entity, String kind, Collection<Integer> ids) throws SQLException {
+        if (!ENABLED || ids.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            for (int id : ids) {
+                pstmt.setString(1, entity);
+                pstmt.setInt(2, id);
+                pstmt.setString(3, kind);
+                pstmt.setString(4, CLIENT_ID);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+}
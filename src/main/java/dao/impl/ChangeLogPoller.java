@@ -0,0 +1,252 @@
+package dao.impl;
+
+import utils.ChangeEvent;
+import utils.ChangeSet;
+import utils.Config;
+import utils.DatabaseConnection;
+import utils.EventSystem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecture périodique du journal des modifications écrit par les autres clients.
+ * Chaque passage lit les lignes postérieures au dernier numéro de séquence vu, invalide
+ * les entrées correspondantes des caches, puis publie les modifications typées dans
+ * {@link EventSystem}, qui les fusionne et les remet aux contrôleurs sur le thread JavaFX.
+ */
+public class ChangeLogPoller {
+
+    private static final long POLL_INTERVAL_MS = Math.max(200, Config.getLong("CHANGE_LOG_POLL_MS", 2000));
+    private static final long RETENTION_HOURS = Math.max(1, Config.getLong("CHANGE_LOG_RETENTION_HOURS", 24));
+    private static final long PURGE_INTERVAL_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final int MAX_ROWS_PER_POLL = 1000;
+    private static final int PURGE_BATCH_SIZE = 5000;
+
+    /**
+     * Durée pendant laquelle un numéro de séquence manquant est encore attendu.
+     * Un trou correspond à une transaction pas encore validée, ou annulée.
+     */
+    private static final long GAP_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    // Singleton
+    private static final ChangeLogPoller instance = new ChangeLogPoller();
+
+    private ScheduledExecutorService scheduler;
+    private long lastSeq;
+    private long lastPurgeMillis;
+    private final Map<Long, Long> pendingGaps = new LinkedHashMap<>();
+
+    private ChangeLogPoller() {
+        // Constructeur privé pour le singleton
+    }
+
+    /**
+     * Obtient l'instance unique du lecteur de journal.
+     *
+     * @return L'instance du lecteur de journal
+     */
+    public static ChangeLogPoller getInstance() {
+        return instance;
+    }
+
+    /**
+     * Démarre la lecture périodique du journal, à partir de sa fin actuelle.
+     * Sans effet si le journal est désactivé (CHANGE_LOG_ENABLED=false) ou déjà démarré.
+     */
+    public synchronized void start() {
+        if (!ChangeLog.ENABLED || scheduler != null) {
+            return;
+        }
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(seq), 0) FROM change_log")) {
+            lastSeq = rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            System.err.println("Impossible de lire le journal des modifications: " + e.getMessage());
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "change-log-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::poll, POLL_INTERVAL_MS, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Arrête la lecture du journal.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Lit les nouvelles lignes du journal et publie les modifications des autres clients.
+     */
+    private void poll() {
+        List<ChangeEvent> changes = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            readChanges(conn, changes);
+            purgeIfDue(conn);
+        } catch (Exception e) {
+            System.err.println("Erreur lors de la lecture du journal des modifications: " + e.getMessage());
+            return;
+        }
+
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        for (ChangeEvent change : changes) {
+            if (change.getEntity() == ChangeEvent.Entity.LIVRE) {
+                LivreDAOImpl.invalidateCached(change.getId());
+            } else if (change.getEntity() == ChangeEvent.Entity.MEMBRE) {
+                MembreDAOImpl.invalidateCached(change.getId());
+            }
+        }
+
+        refreshSearchIndexes(changes);
+
+        EventSystem.getInstance().publishChanges(changes);
+    }
+
+    /**
+     * Répercute sur les index de recherche en mémoire les insertions, modifications et suppressions.
+     * Les changements de disponibilité ne touchent pas les champs indexés.
+     *
+     * @param changes Les modifications lues
+     */
+    private void refreshSearchIndexes(List<ChangeEvent> changes) {
+        ChangeSet merged = new ChangeSet();
+        changes.forEach(merged::add);
+
+        Set<Integer> changedLivres = new HashSet<>();
+        merged.get(ChangeEvent.Entity.LIVRE).forEach((id, kind) -> {
+            if (kind == ChangeEvent.Kind.INSERT || kind == ChangeEvent.Kind.UPDATE) {
+                changedLivres.add(id);
+            }
+        });
+        try {
+            LivreDAOImpl.refreshSearchIndex(changedLivres, merged.deletedIds(ChangeEvent.Entity.LIVRE));
+        } catch (Exception e) {
+            System.err.println("Erreur lors de la mise à jour de l'index de recherche des livres: " + e.getMessage());
+        }
+        try {
+            MembreDAOImpl.refreshSearchIndex(merged.changedIds(ChangeEvent.Entity.MEMBRE),
+                    merged.deletedIds(ChangeEvent.Entity.MEMBRE));
+        } catch (Exception e) {
+            System.err.println("Erreur lors de la mise à jour de l'index de recherche des membres: " + e.getMessage());
+        }
+    }
+
+    private void readChanges(Connection conn, List<ChangeEvent> changes) throws SQLException {
+        expireGaps();
+        List<Long> gaps = new ArrayList<>(pendingGaps.keySet());
+
+        StringBuilder sql = new StringBuilder("SELECT seq, entity, entity_id, kind, client_id FROM change_log WHERE seq > ?");
+        if (!gaps.isEmpty()) {
+            sql.append(" OR seq IN (").append(DAOUtils.placeholders(gaps.size())).append(")");
+        }
+        sql.append(" ORDER BY seq LIMIT ").append(MAX_ROWS_PER_POLL);
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            pstmt.setLong(index++, lastSeq);
+            for (long gap : gaps) {
+                pstmt.setLong(index++, gap);
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    long seq = rs.getLong("seq");
+                    if (seq > lastSeq) {
+                        long now = System.nanoTime();
+                        // Seuls les derniers numéros manquants sont attendus : un saut plus grand
+                        // (journal purgé, longue absence) n'est pas rattrapé
+                        for (long missing = Math.max(lastSeq + 1, seq - DAOUtils.MAX_IN_SIZE); missing < seq; missing++) {
+                            pendingGaps.put(missing, now);
+                        }
+                        lastSeq = seq;
+                    } else {
+                        pendingGaps.remove(seq);
+                    }
+
+                    if (!ChangeLog.CLIENT_ID.equals(rs.getString("client_id"))) {
+                        ChangeEvent change = toChangeEvent(rs);
+                        if (change != null) {
+                            changes.add(change);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private ChangeEvent toChangeEvent(ResultSet rs) throws SQLException {
+        try {
+            return new ChangeEvent(
+                    ChangeEvent.Entity.valueOf(rs.getString("entity")),
+                    rs.getInt("entity_id"),
+                    ChangeEvent.Kind.valueOf(rs.getString("kind")));
+        } catch (IllegalArgumentException e) {
+            // Ligne écrite par une version plus récente de l'application
+            System.err.println("Ligne du journal ignorée (seq " + rs.getLong("seq") + "): " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Abandonne les numéros de séquence attendus depuis trop longtemps (transactions annulées).
+     */
+    private void expireGaps() {
+        long now = System.nanoTime();
+        Iterator<Long> iterator = pendingGaps.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next() > GAP_TIMEOUT_NANOS) {
+                iterator.remove();
+            }
+        }
+        // Borne de sécurité : au plus un lot de numéros attendus
+        while (pendingGaps.size() > DAOUtils.MAX_IN_SIZE) {
+            pendingGaps.remove(pendingGaps.keySet().iterator().next());
+        }
+    }
+
+    /**
+     * Supprime par lots les lignes plus anciennes que la durée de rétention.
+     */
+    private void purgeIfDue(Connection conn) throws SQLException {
+        long now = System.currentTimeMillis();
+        if (now - lastPurgeMillis < PURGE_INTERVAL_MS) {
+            return;
+        }
+        lastPurgeMillis = now;
+
+        String sql = "DELETE FROM change_log WHERE created_at < NOW() - INTERVAL ? HOUR LIMIT " + PURGE_BATCH_SIZE;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setLong(1, RETENTION_HOURS);
+            while (pstmt.executeUpdate() == PURGE_BATCH_SIZE) {
+                // Lot suivant
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package dao.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Fonctions utilitaires partagées par les implémentations DAO.
+ */
+final class DAOUtils {
+
+    /**
+     * Nombre maximal d'identifiants par requête IN (...).
+     */
+    static final int MAX_IN_SIZE = 500;
+
+    /**
+     * Tailles de liste IN (...) utilisées. Les lots sont complétés jusqu'à l'une de ces tailles
+     * pour limiter le nombre de requêtes SQL distinctes dans le cache d'instructions.
+     */
+    private static final int[] IN_SIZES = { 1, 8, 32, 128, MAX_IN_SIZE };
+
+    private DAOUtils() {
+        // Classe utilitaire, pas d'instance
+    }
+
+    /**
+     * Découpe une collection d'identifiants en lots dédoublonnés pour des requêtes IN (...).
+     * Chaque lot est complété en répétant son dernier identifiant jusqu'à une taille normalisée.
+     *
+     * @param ids Les identifiants à découper
+     * @return La liste des lots
+     */
+    static List<List<Integer>> chunkIds(Collection<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.removeIf(id -> id == null);
+
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int start = 0; start < distinct.size(); start += MAX_IN_SIZE) {
+            List<Integer> chunk = new ArrayList<>(distinct.subList(start, Math.min(start + MAX_IN_SIZE, distinct.size())));
+            int target = paddedSize(chunk.size());
+            Integer last = chunk.get(chunk.size() - 1);
+            while (chunk.size() < target) {
+                chunk.add(last);
+            }
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * Construit la liste de paramètres d'une clause IN.
+     *
+     * @param count Le nombre de paramètres
+     * @return Une chaîne de la forme "?, ?, ?"
+     */
+    static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Échappe les caractères spéciaux de LIKE (\, % et _) d'une saisie.
+     *
+     * @param text La saisie
+     * @return La saisie, à utiliser telle quelle dans un motif LIKE
+     */
+    static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Détermine la taille normalisée d'un lot.
+     *
+     * @param size La taille réelle du lot
+     * @return La plus petite taille normalisée supérieure ou égale
+     */
+    private static int paddedSize(int size) {
+        for (int candidate : IN_SIZES) {
+            if (candidate >= size) {
+                return candidate;
+            }
+        }
+        return size;
+    }
+}
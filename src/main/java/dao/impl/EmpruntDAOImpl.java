@@ -1,24 +1,84 @@
 package dao.impl;
 
+import dao.BatchResult;
 import dao.EmpruntDAO;
 import dao.LivreDAO;
 import dao.MembreDAO;
+import dao.Page;
 import models.Emprunt;
 import models.Livre;
 import models.Membre;
 import utils.DatabaseConnection;
+import utils.Dates;
 
 import java.sql.*;
+import java.time.DateTimeException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * Implémentation de l'interface EmpruntDAO pour les opérations CRUD sur les emprunts.
  */
 public class EmpruntDAOImpl implements EmpruntDAO {
     
+    /**
+     * Requête de base chargeant les emprunts avec leur livre et leur membre en une seule passe.
+     * Les dates sont lues en jours depuis le 1970-01-01.
+     */
+    private static final String DETAILS_COLUMNS =
+            "SELECT e.id, e.livre_id, e.membre_id, " +
+            Dates.epochDaySql("e.date_emprunt") + " AS date_emprunt, " +
+            Dates.epochDaySql("e.date_retour_prevue") + " AS date_retour_prevue, " +
+            Dates.epochDaySql("e.date_retour_reelle") + " AS date_retour_reelle, " +
+            "l.titre AS l_titre, l.auteur AS l_auteur, l.isbn AS l_isbn, l.annee_publication AS l_annee_publication, " +
+            "l.editeur AS l_editeur, l.disponible AS l_disponible, " +
+            "m.nom AS m_nom, m.prenom AS m_prenom, m.email AS m_email, m.telephone AS m_telephone, " +
+            "m.adresse AS m_adresse, " + Dates.epochDaySql("m.date_inscription") + " AS m_date_inscription ";
+    private static final String DETAILS_JOINS =
+            "JOIN livres l ON e.livre_id = l.id " +
+            "JOIN membres m ON e.membre_id = m.id";
+    private static final String SELECT_WITH_DETAILS = DETAILS_COLUMNS + "FROM emprunts e " + DETAILS_JOINS;
+    
+    private static final String INSERT_SQL = "INSERT INTO emprunts (livre_id, membre_id, date_emprunt, date_retour_prevue, date_retour_reelle) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE emprunts SET livre_id = ?, membre_id = ?, date_emprunt = ?, date_retour_prevue = ?, date_retour_reelle = ? WHERE id = ?";
+    
+    private static final String RESERVE_LIVRE_SQL = "UPDATE livres SET disponible = 0 WHERE id = ? AND disponible = 1";
+    private static final String EN_COURS = "e.date_retour_reelle IS NULL";
+    private static final String RETURN_SQL = "UPDATE emprunts e JOIN livres l ON l.id = e.livre_id " +
+            "SET e.date_retour_reelle = ?, l.disponible = 1 WHERE e.id = ? AND " + EN_COURS;
+    private static final String RELEASE_LIVRE_SQL = "UPDATE livres l JOIN emprunts e ON e.livre_id = l.id " +
+            "SET l.disponible = 1 WHERE e.id = ? AND " + EN_COURS;
+    
+    private static final KeysetPagination<Emprunt> PAGINATION = new KeysetPagination<Emprunt>("e.id", Emprunt::getId)
+            .sortable("date_emprunt", "e.date_emprunt", e -> Dates.format(e.getDateEmprunt()))
+            .sortable("date_retour_prevue", "e.date_retour_prevue", e -> Dates.format(e.getDateRetourPrevue()));
+    
+    /**
+     * Tris autorisés pour {@link #findSortedIds} : colonne → jointure éventuelle et expression ORDER BY.
+     * L'ID départage les égalités pour que l'ordre soit stable d'un chargement à l'autre.
+     */
+    private static final Map<String, String[]> SORTED_IDS = Map.of(
+            "id", new String[] {"", "e.id"},
+            "date_emprunt", new String[] {"", "e.date_emprunt"},
+            "date_retour_prevue", new String[] {"", "e.date_retour_prevue"},
+            "date_retour_reelle", new String[] {"", "e.date_retour_reelle"},
+            "livre", new String[] {" JOIN livres l ON e.livre_id = l.id", "l.titre"},
+            "membre", new String[] {" JOIN membres m ON e.membre_id = m.id", "m.nom, m.prenom"});
+    
+    // Longueur minimale d'un mot indexé en plein texte (innodb_ft_min_token_size)
+    private static final int FULLTEXT_MIN_TOKEN = 3;
+    private static final Pattern DATE_QUERY = Pattern.compile("(\\d{4})(?:-(\\d{2})(?:-(\\d{2}))?)?");
+    private static final String[] DATE_COLUMNS = {"e.date_emprunt", "e.date_retour_prevue", "e.date_retour_reelle"};
+    
     private final LivreDAO livreDAO;
     private final MembreDAO membreDAO;
     
@@ -35,41 +95,76 @@ public class EmpruntDAOImpl implements EmpruntDAO {
 
     /**
      * Insère un nouvel emprunt dans la base de données.
+     * Comme pour {@link #checkout}, le livre d'un emprunt en cours est réservé dans la même transaction,
+     * à condition d'être disponible ; un emprunt déjà retourné est inséré sans toucher au livre.
      * 
      * @param emprunt L'emprunt à insérer
      * @return L'emprunt inséré avec son ID généré
-     * @throws Exception En cas d'erreur lors de l'insertion
+     * @throws Exception En cas d'erreur lors de l'insertion, ou si le livre de l'emprunt en cours n'est pas disponible
      */
     @Override
     public Emprunt insert(Emprunt emprunt) throws Exception {
-        String sql = "INSERT INTO emprunts (livre_id, membre_id, date_emprunt, date_retour_prevue, date_retour_reelle) VALUES (?, ?, ?, ?, ?)";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setInt(1, emprunt.getLivreId());
-            pstmt.setInt(2, emprunt.getMembreId());
-            pstmt.setString(3, emprunt.getDateEmprunt());
-            pstmt.setString(4, emprunt.getDateRetourPrevue());
-            pstmt.setString(5, emprunt.getDateRetourReelle());
-            
-            int affectedRows = pstmt.executeUpdate();
-            
-            if (affectedRows == 0) {
-                throw new SQLException("La création de l'emprunt a échoué, aucune ligne affectée.");
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (!reserveAndInsert(conn, emprunt)) {
+                    throw new SQLException("Le livre " + emprunt.getLivreId() + " n'est pas disponible.");
+                }
+                
+                if (emprunt.isEnCours()) {
+                    ChangeLog.record(conn, ChangeLog.LIVRE, ChangeLog.DISPONIBILITE, emprunt.getLivreId());
+                }
+                ChangeLog.record(conn, ChangeLog.EMPRUNT, ChangeLog.INSERT, emprunt.getId());
+                conn.commit();
+                return emprunt;
+            } catch (Exception e) {
+                conn.rollback();
+                emprunt.setId(0);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                if (emprunt.isEnCours()) {
+                    LivreDAOImpl.invalidateCached(emprunt.getLivreId());
+                }
             }
-            
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    emprunt.setId(generatedKeys.getInt(1));
-                } else {
-                    throw new SQLException("La création de l'emprunt a échoué, aucun ID obtenu.");
+        }
+    }
+
+    /**
+     * Enregistre un emprunt si le livre est disponible.
+     * La mise à jour conditionnelle ne verrouille que la ligne du livre concerné,
+     * les emprunts de livres différents ne se bloquent donc pas entre eux.
+     * 
+     * @param livreId L'ID du livre
+     * @param membreId L'ID du membre
+     * @param dateEmprunt La date d'emprunt, en jours depuis le 1970-01-01
+     * @param dateRetourPrevue La date de retour prévue, en jours depuis le 1970-01-01
+     * @return L'emprunt créé avec son ID, ou null si le livre n'est pas disponible
+     * @throws Exception En cas d'erreur lors de l'enregistrement
+     */
+    @Override
+    public Emprunt checkout(int livreId, int membreId, long dateEmprunt, long dateRetourPrevue) throws Exception {
+        Emprunt emprunt = new Emprunt(livreId, membreId, dateEmprunt, dateRetourPrevue);
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (!reserveAndInsert(conn, emprunt)) {
+                    conn.rollback();
+                    return null;
                 }
+                
+                ChangeLog.record(conn, ChangeLog.LIVRE, ChangeLog.DISPONIBILITE, livreId);
+                ChangeLog.record(conn, ChangeLog.EMPRUNT, ChangeLog.INSERT, emprunt.getId());
+                conn.commit();
+                LivreDAOImpl.invalidateCached(livreId);
+                return emprunt;
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
-            
-            livreDAO.updateDisponibilite(emprunt.getLivreId(), false);
-            
-            return emprunt;
         }
     }
 
@@ -82,21 +177,110 @@ public class EmpruntDAOImpl implements EmpruntDAO {
      */
     @Override
     public boolean update(Emprunt emprunt) throws Exception {
-        String sql = "UPDATE emprunts SET livre_id = ?, membre_id = ?, date_emprunt = ?, date_retour_prevue = ?, date_retour_reelle = ? WHERE id = ?";
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+                
+                bindUpdateParameters(pstmt, emprunt);
+                
+                int affectedRows = pstmt.executeUpdate();
+                if (affectedRows > 0) {
+                    ChangeLog.record(conn, ChangeLog.EMPRUNT, ChangeLog.UPDATE, emprunt.getId());
+                }
+                conn.commit();
+                return affectedRows > 0;
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Insère plusieurs emprunts, par transactions de DB_BATCH_SIZE lignes.
+     * Comme pour {@link #checkout}, le livre d'un emprunt en cours est réservé dans la même
+     * transaction que l'insertion, à condition d'être disponible ; un emprunt déjà retourné
+     * est inséré sans toucher au livre. Une ligne en échec, par exemple parce que son livre
+     * est déjà emprunté, est annulée seule et signalée dans le résultat.
+     * 
+     * @param emprunts Les emprunts à insérer
+     * @return Le résultat du lot : IDs générés et erreurs par ligne
+     * @throws Exception Si aucune connexion n'a pu être obtenue
+     */
+    @Override
+    public BatchResult insertAll(List<Emprunt> emprunts) throws Exception {
+        int[] ids = new int[emprunts.size()];
+        Map<Integer, Exception> failures = new HashMap<>();
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, emprunt.getLivreId());
-            pstmt.setInt(2, emprunt.getMembreId());
-            pstmt.setString(3, emprunt.getDateEmprunt());
-            pstmt.setString(4, emprunt.getDateRetourPrevue());
-            pstmt.setString(5, emprunt.getDateRetourReelle());
-            pstmt.setInt(6, emprunt.getId());
-            
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (int start = 0; start < emprunts.size(); start += BatchExecutor.BATCH_SIZE) {
+                int end = Math.min(start + BatchExecutor.BATCH_SIZE, emprunts.size());
+                List<Integer> inserted = new ArrayList<>();
+                List<Integer> empruntIds = new ArrayList<>();
+                List<Integer> livreIds = new ArrayList<>();
+                
+                conn.setAutoCommit(false);
+                try {
+                    for (int i = start; i < end; i++) {
+                        Emprunt emprunt = emprunts.get(i);
+                        // Même nom à chaque ligne : MySQL remplace le point de sauvegarde précédent
+                        Savepoint savepoint = conn.setSavepoint("emprunt");
+                        try {
+                            if (!reserveAndInsert(conn, emprunt)) {
+                                failures.put(i, new SQLException("Le livre " + emprunt.getLivreId() + " n'est pas disponible."));
+                                continue;
+                            }
+                        } catch (SQLException | RuntimeException e) {
+                            conn.rollback(savepoint);
+                            failures.put(i, e);
+                            continue;
+                        }
+                        inserted.add(i);
+                        empruntIds.add(emprunt.getId());
+                        if (emprunt.isEnCours()) {
+                            livreIds.add(emprunt.getLivreId());
+                        }
+                    }
+                    
+                    ChangeLog.record(conn, ChangeLog.EMPRUNT, ChangeLog.INSERT, empruntIds);
+                    ChangeLog.record(conn, ChangeLog.LIVRE, ChangeLog.DISPONIBILITE, livreIds);
+                    conn.commit();
+                    for (int i : inserted) {
+                        ids[i] = emprunts.get(i).getId();
+                    }
+                } catch (SQLException e) {
+                    // Transaction perdue (interblocage, connexion) : toute la tranche est en échec
+                    conn.rollback();
+                    for (int i = start; i < end; i++) {
+                        failures.putIfAbsent(i, e);
+                    }
+                    for (int i : inserted) {
+                        emprunts.get(i).setId(0);
+                    }
+                } finally {
+                    conn.setAutoCommit(true);
+                    for (int livreId : livreIds) {
+                        LivreDAOImpl.invalidateCached(livreId);
+                    }
+                }
+            }
         }
+        
+        return new BatchResult(ids, failures);
+    }
+
+    /**
+     * Met à jour plusieurs emprunts par lots JDBC.
+     * 
+     * @param emprunts Les emprunts à mettre à jour
+     * @return Le résultat du lot : IDs mis à jour et erreurs par ligne
+     * @throws Exception Si aucune connexion n'a pu être obtenue
+     */
+    @Override
+    public BatchResult updateAll(List<Emprunt> emprunts) throws Exception {
+        return BatchExecutor.update(UPDATE_SQL, emprunts, this::bindUpdateParameters, Emprunt::getId, ChangeLog.EMPRUNT);
     }
 
     /**
@@ -108,25 +292,38 @@ public class EmpruntDAOImpl implements EmpruntDAO {
      */
     @Override
     public boolean delete(int id) throws Exception {
-        Emprunt emprunt = findById(id);
-        if (emprunt == null) {
-            return false;
-        }
-        
-        String sql = "DELETE FROM emprunts WHERE id = ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            
-            int affectedRows = pstmt.executeUpdate();
-            
-            if (affectedRows > 0 && (emprunt.getDateRetourReelle() == null || emprunt.getDateRetourReelle().isEmpty())) {
-                livreDAO.updateDisponibilite(emprunt.getLivreId(), true);
+        List<Integer> livreIds = List.of();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // Le livre d'un emprunt non retourné redevient disponible
+                livreIds = lockLivresEnCours(conn, List.of(id));
+                try (PreparedStatement pstmt = conn.prepareStatement(RELEASE_LIVRE_SQL)) {
+                    pstmt.setInt(1, id);
+                    pstmt.executeUpdate();
+                }
+                ChangeLog.record(conn, ChangeLog.LIVRE, ChangeLog.DISPONIBILITE, livreIds);
+                
+                int affectedRows;
+                try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM emprunts WHERE id = ?")) {
+                    pstmt.setInt(1, id);
+                    affectedRows = pstmt.executeUpdate();
+                }
+                if (affectedRows > 0) {
+                    ChangeLog.record(conn, ChangeLog.EMPRUNT, ChangeLog.DELETE, id);
+                }
+                
+                conn.commit();
+                return affectedRows > 0;
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                for (int livreId : livreIds) {
+                    LivreDAOImpl.invalidateCached(livreId);
+                }
             }
-            
-            return affectedRows > 0;
         }
     }
 
@@ -139,29 +336,46 @@ public class EmpruntDAOImpl implements EmpruntDAO {
      */
     @Override
     public Emprunt findById(int id) throws Exception {
-        String sql = "SELECT * FROM emprunts WHERE id = ?";
+        String sql = SELECT_WITH_DETAILS + " WHERE e.id = ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, id);
             
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    Emprunt emprunt = extractEmpruntFromResultSet(rs);
-                    
-                    Livre livre = livreDAO.findById(emprunt.getLivreId());
-                    Membre membre = membreDAO.findById(emprunt.getMembreId());
-                    
-                    emprunt.setLivre(livre);
-                    emprunt.setMembre(membre);
+            List<Emprunt> emprunts = executeWithDetails(pstmt);
+            return emprunts.isEmpty() ? null : emprunts.get(0);
+        }
+    }
+
+    /**
+     * Récupère plusieurs emprunts par leurs IDs, par lots de requêtes IN (...).
+     * 
+     * @param ids Les IDs des emprunts à récupérer
+     * @return Une map ID → emprunt, sans entrée pour les IDs introuvables
+     * @throws Exception En cas d'erreur lors de la récupération
+     */
+    @Override
+    public Map<Integer, Emprunt> findByIds(Collection<Integer> ids) throws Exception {
+        Map<Integer, Emprunt> emprunts = new HashMap<>();
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (List<Integer> chunk : DAOUtils.chunkIds(ids)) {
+                String sql = SELECT_WITH_DETAILS + " WHERE e.id IN (" + DAOUtils.placeholders(chunk.size()) + ")";
+                
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setInt(i + 1, chunk.get(i));
+                    }
                     
-                    return emprunt;
+                    for (Emprunt emprunt : executeWithDetails(pstmt)) {
+                        emprunts.put(emprunt.getId(), emprunt);
+                    }
                 }
             }
         }
         
-        return null;
+        return emprunts;
     }
 
     /**
@@ -172,19 +386,39 @@ public class EmpruntDAOImpl implements EmpruntDAO {
      */
     @Override
     public List<Emprunt> findAll() throws Exception {
-        String sql = "SELECT * FROM emprunts";
-        List<Emprunt> emprunts = new ArrayList<>();
-        
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(SELECT_WITH_DETAILS)) {
             
-            while (rs.next()) {
-                emprunts.add(extractEmpruntFromResultSet(rs));
-            }
+            return executeWithDetails(pstmt);
+        }
+    }
+
+    /**
+     * Parcourt tous les emprunts en mode streaming, sans les charger en mémoire.
+     * 
+     * @return Un flux de tous les emprunts, à fermer par l'appelant
+     * @throws Exception En cas d'erreur lors de l'ouverture du flux
+     */
+    @Override
+    public Stream<Emprunt> streamAll() throws Exception {
+        return streamAllWithDetails();
+    }
+
+    /**
+     * Récupère une page d'emprunts avec leur livre et leur membre.
+     * Colonnes de tri autorisées : id, date_emprunt, date_retour_prevue.
+     * 
+     * @param seekToken Le jeton de continuation de la page précédente, ou null pour la première page
+     * @param limit Le nombre maximal d'emprunts de la page
+     * @param sortColumn La colonne de tri, ou null pour trier par ID
+     * @return La page d'emprunts
+     * @throws Exception En cas d'erreur lors de la récupération
+     */
+    @Override
+    public Page<Emprunt> findPage(String seekToken, int limit, String sortColumn) throws Exception {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return PAGINATION.fetch(conn, SELECT_WITH_DETAILS, null, null, sortColumn, seekToken, limit, this::executeWithDetails);
         }
-        
-        return emprunts;
     }
 
     /**
@@ -196,30 +430,15 @@ public class EmpruntDAOImpl implements EmpruntDAO {
      */
     @Override
     public List<Emprunt> findByLivreId(int livreId) throws Exception {
-        String sql = "SELECT * FROM emprunts WHERE livre_id = ?";
-        List<Emprunt> emprunts = new ArrayList<>();
+        String sql = SELECT_WITH_DETAILS + " WHERE e.livre_id = ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, livreId);
             
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    Emprunt emprunt = extractEmpruntFromResultSet(rs);
-                    
-                    Livre livre = livreDAO.findById(emprunt.getLivreId());
-                    Membre membre = membreDAO.findById(emprunt.getMembreId());
-                    
-                    emprunt.setLivre(livre);
-                    emprunt.setMembre(membre);
-                    
-                    emprunts.add(emprunt);
-                }
-            }
+            return executeWithDetails(pstmt);
         }
-        
-        return emprunts;
     }
 
     /**
@@ -231,30 +450,15 @@ public class EmpruntDAOImpl implements EmpruntDAO {
      */
     @Override
     public List<Emprunt> findByMembreId(int membreId) throws Exception {
-        String sql = "SELECT * FROM emprunts WHERE membre_id = ?";
-        List<Emprunt> emprunts = new ArrayList<>();
+        String sql = SELECT_WITH_DETAILS + " WHERE e.membre_id = ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, membreId);
             
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    Emprunt emprunt = extractEmpruntFromResultSet(rs);
-                    
-                    Livre livre = livreDAO.findById(emprunt.getLivreId());
-                    Membre membre = membreDAO.findById(emprunt.getMembreId());
-                    
-                    emprunt.setLivre(livre);
-                    emprunt.setMembre(membre);
-                    
-                    emprunts.add(emprunt);
-                }
-            }
+            return executeWithDetails(pstmt);
         }
-        
-        return emprunts;
     }
 
     /**
@@ -265,27 +469,30 @@ public class EmpruntDAOImpl implements EmpruntDAO {
      */
     @Override
     public List<Emprunt> findAllEnCours() throws Exception {
-        String sql = "SELECT * FROM emprunts WHERE date_retour_reelle IS NULL OR date_retour_reelle = ''";
-        List<Emprunt> emprunts = new ArrayList<>();
+        String sql = SELECT_WITH_DETAILS + " WHERE " + EN_COURS;
         
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            while (rs.next()) {
-                Emprunt emprunt = extractEmpruntFromResultSet(rs);
-                
-                Livre livre = livreDAO.findById(emprunt.getLivreId());
-                Membre membre = membreDAO.findById(emprunt.getMembreId());
-                
-                emprunt.setLivre(livre);
-                emprunt.setMembre(membre);
-                
-                emprunts.add(emprunt);
-            }
+            return executeWithDetails(pstmt);
+        }
+    }
+
+    /**
+     * Récupère une page d'emprunts en cours (non retournés).
+     * 
+     * @param seekToken Le jeton de continuation de la page précédente, ou null pour la première page
+     * @param limit Le nombre maximal d'emprunts de la page
+     * @param sortColumn La colonne de tri, ou null pour trier par ID
+     * @return La page d'emprunts en cours
+     * @throws Exception En cas d'erreur lors de la recherche
+     */
+    @Override
+    public Page<Emprunt> findEnCoursPage(String seekToken, int limit, String sortColumn) throws Exception {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return PAGINATION.fetch(conn, SELECT_WITH_DETAILS, EN_COURS, null,
+                    sortColumn, seekToken, limit, this::executeWithDetails);
         }
-        
-        return emprunts;
     }
 
     /**
@@ -296,63 +503,121 @@ public class EmpruntDAOImpl implements EmpruntDAO {
      */
     @Override
     public List<Emprunt> findAllEnRetard() throws Exception {
-        String dateActuelle = LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
+        long dateActuelle = Dates.today();
         
-        String sql = "SELECT * FROM emprunts WHERE (date_retour_reelle IS NULL OR date_retour_reelle = '') AND date_retour_prevue < ?";
-        List<Emprunt> emprunts = new ArrayList<>();
+        String sql = SELECT_WITH_DETAILS + " WHERE " + EN_COURS + " AND e.date_retour_prevue < ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setString(1, dateActuelle);
+            Dates.setEpochDay(pstmt, 1, dateActuelle);
             
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    Emprunt emprunt = extractEmpruntFromResultSet(rs);
-                    
-                    Livre livre = livreDAO.findById(emprunt.getLivreId());
-                    Membre membre = membreDAO.findById(emprunt.getMembreId());
-                    
-                    emprunt.setLivre(livre);
-                    emprunt.setMembre(membre);
-                    
-                    emprunts.add(emprunt);
-                }
-            }
+            return executeWithDetails(pstmt);
         }
-        
-        return emprunts;
     }
 
     /**
      * Enregistre le retour d'un emprunt.
      * 
      * @param id L'ID de l'emprunt
-     * @param dateRetour La date de retour
+     * @param dateRetour La date de retour, en jours depuis le 1970-01-01
      * @return true si la mise à jour a réussi, false sinon
      * @throws Exception En cas d'erreur lors de la mise à jour
      */
     @Override
-    public boolean retournerEmprunt(int id, String dateRetour) throws Exception {
-        String sql = "UPDATE emprunts SET date_retour_reelle = ? WHERE id = ?";
+    public boolean retournerEmprunt(int id, long dateRetour) throws Exception {
+        List<Integer> livreIds = List.of();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                livreIds = lockLivresEnCours(conn, List.of(id));
+                
+                boolean returned;
+                try (PreparedStatement pstmt = conn.prepareStatement(RETURN_SQL)) {
+                    Dates.setEpochDay(pstmt, 1, dateRetour);
+                    pstmt.setInt(2, id);
+                    returned = pstmt.executeUpdate() > 0;
+                }
+                if (returned) {
+                    ChangeLog.record(conn, ChangeLog.LIVRE, ChangeLog.DISPONIBILITE, livreIds);
+                    ChangeLog.record(conn, ChangeLog.EMPRUNT, ChangeLog.UPDATE, id);
+                }
+                
+                conn.commit();
+                return returned;
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                for (int livreId : livreIds) {
+                    LivreDAOImpl.invalidateCached(livreId);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Enregistre le retour de plusieurs emprunts en une seule transaction.
+     * Pour chaque lot d'IDs, les livres sont rendus disponibles puis les emprunts marqués retournés.
+     * 
+     * @param ids Les IDs des emprunts
+     * @param dateRetour La date de retour, en jours depuis le 1970-01-01
+     * @return Le nombre d'emprunts effectivement retournés
+     * @throws Exception En cas d'erreur lors de la mise à jour
+     */
+    @Override
+    public int retournerEmprunts(Collection<Integer> ids, long dateRetour) throws Exception {
+        List<List<Integer>> chunks = DAOUtils.chunkIds(ids);
+        if (chunks.isEmpty()) {
+            return 0;
+        }
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, dateRetour);
-            pstmt.setInt(2, id);
-            
-            int affectedRows = pstmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                Emprunt emprunt = findById(id);
-                if (emprunt != null) {
-                    livreDAO.updateDisponibilite(emprunt.getLivreId(), true);
+        int returned = 0;
+        List<Integer> livreIds = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (List<Integer> chunk : chunks) {
+                    String in = DAOUtils.placeholders(chunk.size());
+                    List<Integer> chunkLivreIds = lockLivresEnCours(conn, chunk);
+                    livreIds.addAll(chunkLivreIds);
+                    
+                    try (PreparedStatement pstmt = conn.prepareStatement(
+                            "UPDATE livres l JOIN emprunts e ON e.livre_id = l.id SET l.disponible = 1 " +
+                            "WHERE e.id IN (" + in + ") AND " + EN_COURS)) {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            pstmt.setInt(i + 1, chunk.get(i));
+                        }
+                        pstmt.executeUpdate();
+                    }
+                    
+                    try (PreparedStatement pstmt = conn.prepareStatement(
+                            "UPDATE emprunts e SET e.date_retour_reelle = ? WHERE e.id IN (" + in + ") AND " + EN_COURS)) {
+                        Dates.setEpochDay(pstmt, 1, dateRetour);
+                        for (int i = 0; i < chunk.size(); i++) {
+                            pstmt.setInt(i + 2, chunk.get(i));
+                        }
+                        int chunkReturned = pstmt.executeUpdate();
+                        if (chunkReturned > 0) {
+                            ChangeLog.record(conn, ChangeLog.LIVRE, ChangeLog.DISPONIBILITE, chunkLivreIds);
+                            ChangeLog.record(conn, ChangeLog.EMPRUNT, ChangeLog.UPDATE, new LinkedHashSet<>(chunk));
+                        }
+                        returned += chunkReturned;
+                    }
+                }
+                
+                conn.commit();
+                return returned;
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                for (int livreId : livreIds) {
+                    LivreDAOImpl.invalidateCached(livreId);
                 }
-                return true;
             }
-            
-            return false;
         }
     }
 
@@ -364,26 +629,334 @@ public class EmpruntDAOImpl implements EmpruntDAO {
      */
     @Override
     public List<Emprunt> findAllWithDetails() throws Exception {
-        String sql = "SELECT e.*, l.titre, l.auteur, m.nom, m.prenom " +
-                     "FROM emprunts e " +
-                     "JOIN livres l ON e.livre_id = l.id " +
-                     "JOIN membres m ON e.membre_id = m.id";
+        String sql = SELECT_WITH_DETAILS;
         
-        List<Emprunt> emprunts = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            return executeWithDetails(pstmt);
+        }
+    }
+    
+    /**
+     * Parcourt les emprunts avec leur livre et leur membre en mode streaming.
+     * Contrairement aux méthodes renvoyant une liste, chaque ligne produit ses propres
+     * instances de Livre et de Membre afin que la mémoire utilisée reste constante.
+     * 
+     * @return Un flux des emprunts avec informations complètes, à fermer par l'appelant
+     * @throws Exception En cas d'erreur lors de l'ouverture du flux
+     */
+    @Override
+    public Stream<Emprunt> streamAllWithDetails() throws Exception {
+        return ResultSetStream.open(SELECT_WITH_DETAILS + " ORDER BY e.id", rs -> {
+            Emprunt emprunt = extractEmpruntFromResultSet(rs);
+            emprunt.setLivre(extractLivreFromResultSet(rs));
+            emprunt.setMembre(extractMembreFromResultSet(rs));
+            return emprunt;
+        });
+    }
+    
+    /**
+     * Récupère les IDs de tous les emprunts dans l'ordre d'affichage, en mode streaming.
+     * Seule la table nécessaire au tri est jointe ; le résultat occupe 4 octets par emprunt.
+     * 
+     * @param sortColumn La colonne de tri, ou null pour trier par ID
+     * @param descending true pour un tri décroissant
+     * @return Les IDs triés
+     * @throws Exception En cas d'erreur lors de la récupération ou si la colonne n'est pas autorisée
+     */
+    @Override
+    public int[] findSortedIds(String sortColumn, boolean descending) throws Exception {
+        String[] sort = SORTED_IDS.get(sortColumn == null ? "id" : sortColumn);
+        if (sort == null) {
+            throw new IllegalArgumentException("Colonne de tri non autorisée: " + sortColumn);
+        }
+        String direction = descending ? " DESC" : " ASC";
+        String orderBy = String.join(direction + ", ", sort[1].split(", ")) + direction;
+        if (!"e.id".equals(sort[1])) {
+            orderBy += ", e.id" + direction;
+        }
+        String sql = "SELECT e.id FROM emprunts e" + sort[0] + " ORDER BY " + orderBy;
         
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
             
+            pstmt.setFetchSize(Integer.MIN_VALUE);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int[] ids = new int[1024];
+                int count = 0;
+                while (rs.next()) {
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, count * 2);
+                    }
+                    ids[count++] = rs.getInt(1);
+                }
+                return Arrays.copyOf(ids, count);
+            }
+        }
+    }
+    
+    /**
+     * Recherche les emprunts dont le titre du livre, le nom ou le prénom du membre, ou une date
+     * correspond à la saisie. Chaque critère est une branche de UNION servie par son propre index
+     * (V6) et limitée à {@code limit} lignes : le coût suit le nombre de résultats, pas la taille
+     * de la table des emprunts.
+     * <ul>
+     *   <li>Texte : chaque mot d'au moins 3 caractères doit commencer un mot du titre, ou du nom
+     *   et prénom (index plein texte) ; une saisie plus courte est cherchée en début de titre,
+     *   de nom ou de prénom.</li>
+     *   <li>Date : AAAA, AAAA-MM ou AAAA-MM-JJ sélectionne la plage correspondante sur les dates
+     *   d'emprunt, de retour prévu et de retour réel.</li>
+     * </ul>
+     * 
+     * @param query La saisie
+     * @param limit Le nombre maximal d'emprunts renvoyés
+     * @return Les emprunts trouvés, les plus récents d'abord
+     * @throws Exception En cas d'erreur lors de la recherche
+     */
+    @Override
+    public List<Emprunt> search(String query, int limit) throws Exception {
+        String text = query == null ? "" : query.trim();
+        if (text.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        
+        StringBuilder union = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+        
+        String fulltext = fulltextQuery(text);
+        if (fulltext != null) {
+            addBranch(union, params, limit, "SELECT e.id FROM emprunts e JOIN livres l ON e.livre_id = l.id " +
+                    "WHERE MATCH(l.titre) AGAINST (? IN BOOLEAN MODE)", fulltext);
+            addBranch(union, params, limit, "SELECT e.id FROM emprunts e JOIN membres m ON e.membre_id = m.id " +
+                    "WHERE MATCH(m.nom, m.prenom) AGAINST (? IN BOOLEAN MODE)", fulltext);
+        } else {
+            String prefix = DAOUtils.escapeLike(text) + "%";
+            addBranch(union, params, limit,
+                    "SELECT e.id FROM emprunts e JOIN livres l ON e.livre_id = l.id WHERE l.titre LIKE ?", prefix);
+            addBranch(union, params, limit,
+                    "SELECT e.id FROM emprunts e JOIN membres m ON e.membre_id = m.id WHERE m.nom LIKE ?", prefix);
+            addBranch(union, params, limit,
+                    "SELECT e.id FROM emprunts e JOIN membres m ON e.membre_id = m.id WHERE m.prenom LIKE ?", prefix);
+        }
+        
+        long[] range = dateRange(text);
+        if (range != null) {
+            for (String column : DATE_COLUMNS) {
+                addBranch(union, params, limit,
+                        "SELECT e.id FROM emprunts e WHERE " + column + " >= ? AND " + column + " < ?",
+                        range[0], range[1]);
+            }
+        }
+        params.add(limit);
+        
+        String sql = DETAILS_COLUMNS + "FROM (" + union + ") found " +
+                "JOIN emprunts e ON e.id = found.id " + DETAILS_JOINS + " ORDER BY e.id DESC LIMIT ?";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            for (int i = 0; i < params.size(); i++) {
+                Object param = params.get(i);
+                if (param instanceof Long) {
+                    Dates.setEpochDay(pstmt, i + 1, (Long) param);
+                } else if (param instanceof Integer) {
+                    pstmt.setInt(i + 1, (Integer) param);
+                } else {
+                    pstmt.setString(i + 1, (String) param);
+                }
+            }
+            
+            return executeWithDetails(pstmt);
+        }
+    }
+    
+    /**
+     * Ajoute une branche à l'union de la recherche, limitée comme le résultat final.
+     * 
+     * @param union L'union en construction
+     * @param params Les paramètres de la requête, dans l'ordre
+     * @param limit Le nombre maximal de lignes de la branche
+     * @param branch La requête de la branche, sélectionnant e.id
+     * @param branchParams Les paramètres de la branche (texte, ou jours depuis le 1970-01-01)
+     */
+    private static void addBranch(StringBuilder union, List<Object> params, int limit, String branch, Object... branchParams) {
+        if (union.length() > 0) {
+            union.append(" UNION ");
+        }
+        union.append('(').append(branch).append(" ORDER BY e.id DESC LIMIT ?)");
+        params.addAll(Arrays.asList(branchParams));
+        params.add(limit);
+    }
+    
+    /**
+     * Construit la requête plein texte en mode booléen : chaque mot assez long est obligatoire
+     * et cherché comme préfixe. Les opérateurs du mode booléen sont retirés de la saisie.
+     * 
+     * @param text La saisie
+     * @return La requête, ou null si aucun mot n'atteint la longueur indexée
+     */
+    private static String fulltextQuery(String text) {
+        StringBuilder query = new StringBuilder();
+        for (String word : text.split("[\\s+\\-<>()~*\"@]+")) {
+            if (word.length() >= FULLTEXT_MIN_TOKEN) {
+                if (query.length() > 0) {
+                    query.append(' ');
+                }
+                query.append('+').append(word).append('*');
+            }
+        }
+        return query.length() == 0 ? null : query.toString();
+    }
+    
+    /**
+     * Interprète la saisie comme une année, un mois ou un jour.
+     * 
+     * @param text La saisie
+     * @return La plage [début, fin[ en jours depuis le 1970-01-01, ou null si la saisie n'est pas une date
+     */
+    private static long[] dateRange(String text) {
+        Matcher matcher = DATE_QUERY.matcher(text);
+        if (!matcher.matches()) {
+            return null;
+        }
+        try {
+            int year = Integer.parseInt(matcher.group(1));
+            if (matcher.group(2) == null) {
+                LocalDate start = LocalDate.of(year, 1, 1);
+                return new long[] {start.toEpochDay(), start.plusYears(1).toEpochDay()};
+            }
+            int month = Integer.parseInt(matcher.group(2));
+            if (matcher.group(3) == null) {
+                LocalDate start = LocalDate.of(year, month, 1);
+                return new long[] {start.toEpochDay(), start.plusMonths(1).toEpochDay()};
+            }
+            LocalDate day = LocalDate.of(year, month, Integer.parseInt(matcher.group(3)));
+            return new long[] {day.toEpochDay(), day.plusDays(1).toEpochDay()};
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Verrouille les emprunts non retournés d'un lot et renvoie leurs livres, que l'opération va libérer.
+     * Lus une seule fois, ces IDs servent au journal des modifications et à l'invalidation du cache.
+     * 
+     * @param conn La connexion de l'opération
+     * @param empruntIds Les IDs des emprunts (un lot issu de DAOUtils.chunkIds)
+     * @return Les IDs distincts des livres empruntés
+     * @throws SQLException En cas d'erreur lors de la lecture
+     */
+    private static List<Integer> lockLivresEnCours(Connection conn, List<Integer> empruntIds) throws SQLException {
+        String sql = "SELECT DISTINCT e.livre_id FROM emprunts e WHERE e.id IN (" + DAOUtils.placeholders(empruntIds.size())
+                + ") AND " + EN_COURS + " FOR UPDATE";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < empruntIds.size(); i++) {
+                pstmt.setInt(i + 1, empruntIds.get(i));
+            }
+            List<Integer> livreIds = new ArrayList<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    livreIds.add(rs.getInt(1));
+                }
+            }
+            return livreIds;
+        }
+    }
+    
+    /**
+     * Insère un emprunt dans la transaction de la connexion, après avoir réservé son livre
+     * s'il est en cours. La réservation échoue si le livre n'est pas disponible.
+     * 
+     * @param conn La connexion, hors autocommit
+     * @param emprunt L'emprunt à insérer, qui reçoit son ID
+     * @return true si l'emprunt a été inséré, false si son livre n'est pas disponible
+     * @throws SQLException En cas d'erreur lors de la réservation ou de l'insertion
+     */
+    private boolean reserveAndInsert(Connection conn, Emprunt emprunt) throws SQLException {
+        if (emprunt.isEnCours()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(RESERVE_LIVRE_SQL)) {
+                pstmt.setInt(1, emprunt.getLivreId());
+                if (pstmt.executeUpdate() == 0) {
+                    return false;
+                }
+            }
+        }
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            bindInsertParameters(pstmt, emprunt);
+            pstmt.executeUpdate();
+            
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    emprunt.setId(generatedKeys.getInt(1));
+                } else {
+                    throw new SQLException("La création de l'emprunt a échoué, aucun ID obtenu.");
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Positionne les paramètres de la requête d'insertion.
+     * 
+     * @param pstmt La requête préparée INSERT_SQL
+     * @param emprunt L'emprunt à insérer
+     * @throws SQLException En cas d'erreur lors du positionnement
+     */
+    private void bindInsertParameters(PreparedStatement pstmt, Emprunt emprunt) throws SQLException {
+        pstmt.setInt(1, emprunt.getLivreId());
+        pstmt.setInt(2, emprunt.getMembreId());
+        Dates.setEpochDay(pstmt, 3, emprunt.getDateEmprunt());
+        Dates.setEpochDay(pstmt, 4, emprunt.getDateRetourPrevue());
+        Dates.setEpochDay(pstmt, 5, emprunt.getDateRetourReelle());
+    }
+    
+    /**
+     * Positionne les paramètres de la requête de mise à jour.
+     * 
+     * @param pstmt La requête préparée UPDATE_SQL
+     * @param emprunt L'emprunt à mettre à jour
+     * @throws SQLException En cas d'erreur lors du positionnement
+     */
+    private void bindUpdateParameters(PreparedStatement pstmt, Emprunt emprunt) throws SQLException {
+        bindInsertParameters(pstmt, emprunt);
+        pstmt.setInt(6, emprunt.getId());
+    }
+    
+    /**
+     * Exécute une requête basée sur SELECT_WITH_DETAILS et hydrate les emprunts,
+     * livres et membres depuis le même ResultSet.
+     * Un livre ou un membre présent sur plusieurs lignes n'est instancié qu'une fois.
+     * 
+     * @param pstmt La requête préparée, paramètres déjà positionnés
+     * @return Liste des emprunts avec leur livre et leur membre
+     * @throws SQLException En cas d'erreur lors de l'exécution
+     */
+    private List<Emprunt> executeWithDetails(PreparedStatement pstmt) throws SQLException {
+        List<Emprunt> emprunts = new ArrayList<>();
+        Map<Integer, Livre> livres = new HashMap<>();
+        Map<Integer, Membre> membres = new HashMap<>();
+        
+        try (ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
                 Emprunt emprunt = extractEmpruntFromResultSet(rs);
                 
-                Livre livre = livreDAO.findById(emprunt.getLivreId());
-                Membre membre = membreDAO.findById(emprunt.getMembreId());
+                Livre livre = livres.get(emprunt.getLivreId());
+                if (livre == null) {
+                    livre = extractLivreFromResultSet(rs);
+                    livres.put(livre.getId(), livre);
+                }
+                Membre membre = membres.get(emprunt.getMembreId());
+                if (membre == null) {
+                    membre = extractMembreFromResultSet(rs);
+                    membres.put(membre.getId(), membre);
+                }
                 
                 emprunt.setLivre(livre);
                 emprunt.setMembre(membre);
-                
                 emprunts.add(emprunt);
             }
         }
@@ -391,6 +964,44 @@ public class EmpruntDAOImpl implements EmpruntDAO {
         return emprunts;
     }
     
+    /**
+     * Extrait le livre associé à un emprunt d'un ResultSet issu de SELECT_WITH_DETAILS.
+     * 
+     * @param rs Le ResultSet positionné sur la ligne
+     * @return Un objet Livre
+     * @throws SQLException En cas d'erreur lors de l'extraction
+     */
+    private Livre extractLivreFromResultSet(ResultSet rs) throws SQLException {
+        Livre livre = new Livre();
+        livre.setId(rs.getInt("livre_id"));
+        livre.setTitre(rs.getString("l_titre"));
+        livre.setAuteur(rs.getString("l_auteur"));
+        livre.setIsbn(rs.getString("l_isbn"));
+        livre.setAnneePublication(rs.getInt("l_annee_publication"));
+        livre.setEditeur(rs.getString("l_editeur"));
+        livre.setDisponible(rs.getBoolean("l_disponible"));
+        return livre;
+    }
+    
+    /**
+     * Extrait le membre associé à un emprunt d'un ResultSet issu de SELECT_WITH_DETAILS.
+     * 
+     * @param rs Le ResultSet positionné sur la ligne
+     * @return Un objet Membre
+     * @throws SQLException En cas d'erreur lors de l'extraction
+     */
+    private Membre extractMembreFromResultSet(ResultSet rs) throws SQLException {
+        Membre membre = new Membre();
+        membre.setId(rs.getInt("membre_id"));
+        membre.setNom(rs.getString("m_nom"));
+        membre.setPrenom(rs.getString("m_prenom"));
+        membre.setEmail(rs.getString("m_email"));
+        membre.setTelephone(rs.getString("m_telephone"));
+        membre.setAdresse(rs.getString("m_adresse"));
+        membre.setDateInscription(Dates.getEpochDay(rs, "m_date_inscription"));
+        return membre;
+    }
+    
     /**
      * Extrait un objet Emprunt d'un ResultSet.
      * 
@@ -403,9 +1014,9 @@ public class EmpruntDAOImpl implements EmpruntDAO {
         emprunt.setId(rs.getInt("id"));
         emprunt.setLivreId(rs.getInt("livre_id"));
         emprunt.setMembreId(rs.getInt("membre_id"));
-        emprunt.setDateEmprunt(rs.getString("date_emprunt"));
-        emprunt.setDateRetourPrevue(rs.getString("date_retour_prevue"));
-        emprunt.setDateRetourReelle(rs.getString("date_retour_reelle"));
+        emprunt.setDateEmprunt(Dates.getEpochDay(rs, "date_emprunt"));
+        emprunt.setDateRetourPrevue(Dates.getEpochDay(rs, "date_retour_prevue"));
+        emprunt.setDateRetourReelle(Dates.getEpochDay(rs, "date_retour_reelle"));
         return emprunt;
     }
 }
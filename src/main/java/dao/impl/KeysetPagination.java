@@ -0,0 +1,188 @@
+package dao.impl;
+
+import dao.Page;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Pagination par clé (keyset) d'une table.
+ * Chaque page reprend après le couple (colonne de tri, id) de la dernière ligne de la page
+ * précédente, sans OFFSET : le coût d'une page ne dépend pas de sa position.
+ *
+ * @param <T> Type des entités paginées
+ */
+final class KeysetPagination<T> {
+
+    /**
+     * Nombre maximal d'entités par page.
+     */
+    static final int MAX_LIMIT = 1000;
+
+    private static final String ID_COLUMN = "id";
+
+    private final String idExpression;
+    private final ToIntFunction<T> idExtractor;
+    private final Map<String, SortColumn<T>> sortColumns = new LinkedHashMap<>();
+
+    /**
+     * Constructeur.
+     *
+     * @param idExpression L'expression SQL de la clé primaire (par ex. "e.id")
+     * @param idExtractor La fonction donnant l'id d'une entité
+     */
+    KeysetPagination(String idExpression, ToIntFunction<T> idExtractor) {
+        this.idExpression = idExpression;
+        this.idExtractor = idExtractor;
+    }
+
+    /**
+     * Déclare une colonne de tri autorisée.
+     * Seules des colonnes NOT NULL peuvent être utilisées comme clé de pagination.
+     *
+     * @param name Le nom public de la colonne
+     * @param expression L'expression SQL correspondante
+     * @param valueExtractor La fonction donnant la valeur de tri d'une entité
+     * @return Cette instance
+     */
+    KeysetPagination<T> sortable(String name, String expression, Function<T, String> valueExtractor) {
+        sortColumns.put(name, new SortColumn<>(expression, valueExtractor));
+        return this;
+    }
+
+    /**
+     * Exécute une requête paginée.
+     *
+     * @param conn La connexion à utiliser
+     * @param baseSql La requête SELECT ... FROM ... sans clause WHERE
+     * @param filter Une condition supplémentaire, ou null
+     * @param filterParams Les paramètres de la condition supplémentaire
+     * @param sortColumn La colonne de tri (null pour l'id)
+     * @param seekToken Le jeton de la page précédente, ou null pour la première page
+     * @param limit Le nombre maximal d'entités de la page
+     * @param executor La fonction exécutant la requête et hydratant les entités
+     * @return La page demandée
+     * @throws SQLException En cas d'erreur lors de l'exécution
+     */
+    Page<T> fetch(Connection conn, String baseSql, String filter, Object[] filterParams, String sortColumn,
+                  String seekToken, int limit, QueryExecutor<T> executor) throws SQLException {
+        String column = sortColumn == null ? ID_COLUMN : sortColumn;
+        if (!ID_COLUMN.equals(column) && !sortColumns.containsKey(column)) {
+            throw new IllegalArgumentException("Colonne de tri non autorisée: " + column);
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        SortColumn<T> sort = sortColumns.get(column);
+
+        StringBuilder sql = new StringBuilder(baseSql);
+        List<String> conditions = new ArrayList<>();
+        if (filter != null) {
+            conditions.add("(" + filter + ")");
+        }
+
+        String[] seek = seekToken == null ? null : decode(seekToken, column);
+        if (seek != null) {
+            if (sort == null) {
+                conditions.add(idExpression + " > ?");
+            } else {
+                conditions.add("(" + sort.expression + " > ? OR (" + sort.expression + " = ? AND " + idExpression + " > ?))");
+            }
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+
+        sql.append(" ORDER BY ");
+        if (sort != null) {
+            sql.append(sort.expression).append(", ");
+        }
+        sql.append(idExpression).append(" LIMIT ?");
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            if (filterParams != null) {
+                for (Object param : filterParams) {
+                    pstmt.setObject(index++, param);
+                }
+            }
+            if (seek != null) {
+                int lastId = Integer.parseInt(seek[0]);
+                if (sort == null) {
+                    pstmt.setInt(index++, lastId);
+                } else {
+                    pstmt.setString(index++, seek[1]);
+                    pstmt.setString(index++, seek[1]);
+                    pstmt.setInt(index++, lastId);
+                }
+            }
+            pstmt.setInt(index, pageSize + 1);
+
+            List<T> items = executor.execute(pstmt);
+            String nextToken = null;
+            if (items.size() > pageSize) {
+                items = new ArrayList<>(items.subList(0, pageSize));
+                nextToken = encode(column, items.get(pageSize - 1), sort);
+            }
+            return new Page<>(items, nextToken);
+        }
+    }
+
+    /**
+     * Construit le jeton de continuation à partir de la dernière entité d'une page.
+     */
+    private String encode(String column, T last, SortColumn<T> sort) {
+        String value = sort == null ? "" : sort.valueExtractor.apply(last);
+        String raw = column + "\n" + idExtractor.applyAsInt(last) + "\n" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un jeton de continuation.
+     *
+     * @return Un tableau {id, valeur de tri}
+     */
+    private static String[] decode(String token, String column) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 3);
+            if (parts.length != 3 || !parts[0].equals(column)) {
+                throw new IllegalArgumentException("Jeton de pagination invalide pour la colonne " + column);
+            }
+            Integer.parseInt(parts[1]);
+            return new String[] { parts[1], parts[2] };
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Jeton de pagination invalide: " + token, e);
+        }
+    }
+
+    /**
+     * Exécute une requête préparée et hydrate les entités.
+     *
+     * @param <T> Type des entités
+     */
+    @FunctionalInterface
+    interface QueryExecutor<T> {
+        List<T> execute(PreparedStatement pstmt) throws SQLException;
+    }
+
+    /**
+     * Colonne de tri autorisée.
+     */
+    private static final class SortColumn<T> {
+        private final String expression;
+        private final Function<T, String> valueExtractor;
+
+        private SortColumn(String expression, Function<T, String> valueExtractor) {
+            this.expression = expression;
+            this.valueExtractor = valueExtractor;
+        }
+    }
+}
@@ -1,17 +1,46 @@
 package dao.impl;
 
+import dao.BatchResult;
 import dao.LivreDAO;
+import dao.Page;
 import models.Livre;
 import utils.DatabaseConnection;
+import utils.EntityCache;
+import utils.InvertedIndex;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Implémentation de l'interface LivreDAO pour les opérations CRUD sur les livres.
  */
 public class LivreDAOImpl implements LivreDAO {
+    
+    /**
+     * Cache partagé par toutes les instances, les contrôleurs créant chacun leur DAO.
+     */
+    private static final EntityCache<Livre> CACHE = new EntityCache<>("livres", l -> new Livre(l.getId(), l.getTitre(), l.getAuteur(), l.getIsbn(), l.getAnneePublication(), l.getEditeur(), l.isDisponible()));
+    
+    /**
+     * Index de recherche du catalogue, partagé comme le cache.
+     */
+    private static final SearchIndex<Livre> SEARCH_INDEX = new SearchIndex<>("livres",
+            // Poids des champs : titre, auteur, éditeur, ISBN
+            new InvertedIndex(3f, 2f, 1f, 3f), Livre::getId,
+            l -> new String[] {l.getTitre(), l.getAuteur(), l.getEditeur(), l.getIsbn()});
+    
+    private static final String INSERT_SQL = "INSERT INTO livres (titre, auteur, isbn, annee_publication, editeur, disponible) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE livres SET titre = ?, auteur = ?, isbn = ?, annee_publication = ?, editeur = ?, disponible = ? WHERE id = ?";
+    
+    private static final KeysetPagination<Livre> PAGINATION = new KeysetPagination<Livre>("id", Livre::getId)
+            .sortable("titre", "titre", Livre::getTitre)
+            .sortable("auteur", "auteur", Livre::getAuteur)
+            .sortable("isbn", "isbn", Livre::getIsbn);
 
     /**
      * Insère un nouveau livre dans la base de données.
@@ -22,34 +51,39 @@ public class LivreDAOImpl implements LivreDAO {
      */
     @Override
     public Livre insert(Livre livre) throws Exception {
-        String sql = "INSERT INTO livres (titre, auteur, isbn, annee_publication, editeur, disponible) VALUES (?, ?, ?, ?, ?, ?)";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setString(1, livre.getTitre());
-            pstmt.setString(2, livre.getAuteur());
-            pstmt.setString(3, livre.getIsbn());
-            pstmt.setInt(4, livre.getAnneePublication());
-            pstmt.setString(5, livre.getEditeur());
-            pstmt.setBoolean(6, livre.isDisponible());
-            
-            int affectedRows = pstmt.executeUpdate();
-            
-            if (affectedRows == 0) {
-                throw new SQLException("La création du livre a échoué, aucune ligne affectée.");
-            }
-            
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    livre.setId(generatedKeys.getInt(1));
-                } else {
-                    throw new SQLException("La création du livre a échoué, aucun ID obtenu.");
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                
+                bindInsertParameters(pstmt, livre);
+                
+                int affectedRows = pstmt.executeUpdate();
+                
+                if (affectedRows == 0) {
+                    throw new SQLException("La création du livre a échoué, aucune ligne affectée.");
+                }
+                
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        livre.setId(generatedKeys.getInt(1));
+                    } else {
+                        throw new SQLException("La création du livre a échoué, aucun ID obtenu.");
+                    }
                 }
+                
+                ChangeLog.record(conn, ChangeLog.LIVRE, ChangeLog.INSERT, livre.getId());
+                conn.commit();
+            } catch (Exception e) {
+                conn.rollback();
+                livre.setId(0);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
-            
-            return livre;
         }
+        
+        SEARCH_INDEX.put(livre);
+        return livre;
     }
 
     /**
@@ -61,22 +95,66 @@ public class LivreDAOImpl implements LivreDAO {
      */
     @Override
     public boolean update(Livre livre) throws Exception {
-        String sql = "UPDATE livres SET titre = ?, auteur = ?, isbn = ?, annee_publication = ?, editeur = ?, disponible = ? WHERE id = ?";
+        int affectedRows;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+                
+                bindUpdateParameters(pstmt, livre);
+                
+                affectedRows = pstmt.executeUpdate();
+                if (affectedRows > 0) {
+                    ChangeLog.record(conn, ChangeLog.LIVRE, ChangeLog.UPDATE, livre.getId());
+                }
+                conn.commit();
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                CACHE.invalidate(livre.getId());
+            }
+        }
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, livre.getTitre());
-            pstmt.setString(2, livre.getAuteur());
-            pstmt.setString(3, livre.getIsbn());
-            pstmt.setInt(4, livre.getAnneePublication());
-            pstmt.setString(5, livre.getEditeur());
-            pstmt.setBoolean(6, livre.isDisponible());
-            pstmt.setInt(7, livre.getId());
-            
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+        if (affectedRows > 0) {
+            SEARCH_INDEX.put(livre);
+        }
+        return affectedRows > 0;
+    }
+
+    /**
+     * Insère plusieurs livres par lots JDBC.
+     * 
+     * @param livres Les livres à insérer
+     * @return Le résultat du lot : IDs générés et erreurs par ligne
+     * @throws Exception Si aucune connexion n'a pu être obtenue
+     */
+    @Override
+    public BatchResult insertAll(List<Livre> livres) throws Exception {
+        BatchResult result = BatchExecutor.insert(INSERT_SQL, livres, this::bindInsertParameters, Livre::setId, ChangeLog.LIVRE);
+        SEARCH_INDEX.putAll(livres, result.getSuccessIds());
+        return result;
+    }
+
+    /**
+     * Met à jour plusieurs livres par lots JDBC.
+     * 
+     * @param livres Les livres à mettre à jour
+     * @return Le résultat du lot : IDs mis à jour et erreurs par ligne
+     * @throws Exception Si aucune connexion n'a pu être obtenue
+     */
+    @Override
+    public BatchResult updateAll(List<Livre> livres) throws Exception {
+        BatchResult result;
+        try {
+            result = BatchExecutor.update(UPDATE_SQL, livres, this::bindUpdateParameters, Livre::getId, ChangeLog.LIVRE);
+        } finally {
+            for (Livre livre : livres) {
+                CACHE.invalidate(livre.getId());
+            }
         }
+        SEARCH_INDEX.putAll(livres, result.getSuccessIds());
+        return result;
     }
 
     /**
@@ -90,14 +168,31 @@ public class LivreDAOImpl implements LivreDAO {
     public boolean delete(int id) throws Exception {
         String sql = "DELETE FROM livres WHERE id = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+        int affectedRows;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, id);
+                
+                affectedRows = pstmt.executeUpdate();
+                if (affectedRows > 0) {
+                    ChangeLog.record(conn, ChangeLog.LIVRE, ChangeLog.DELETE, id);
+                }
+                conn.commit();
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                CACHE.invalidate(id);
+            }
+        }
+        
+        if (affectedRows > 0) {
+            SEARCH_INDEX.remove(id);
         }
+        return affectedRows > 0;
     }
 
     /**
@@ -109,6 +204,12 @@ public class LivreDAOImpl implements LivreDAO {
      */
     @Override
     public Livre findById(int id) throws Exception {
+        Livre cached = CACHE.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = CACHE.stamp();
+        
         String sql = "SELECT * FROM livres WHERE id = ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
@@ -118,7 +219,9 @@ public class LivreDAOImpl implements LivreDAO {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return extractLivreFromResultSet(rs);
+                    Livre livre = extractLivreFromResultSet(rs);
+                    CACHE.put(id, livre, stamp);
+                    return livre;
                 }
             }
         }
@@ -126,6 +229,53 @@ public class LivreDAOImpl implements LivreDAO {
         return null;
     }
 
+    /**
+     * Récupère plusieurs livres par leurs IDs, par lots de requêtes IN (...).
+     * 
+     * @param ids Les IDs des livres à récupérer
+     * @return Une map ID → livre, sans entrée pour les IDs introuvables
+     * @throws Exception En cas d'erreur lors de la récupération
+     */
+    @Override
+    public Map<Integer, Livre> findByIds(Collection<Integer> ids) throws Exception {
+        Map<Integer, Livre> livres = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            Livre cached = id == null ? null : CACHE.get(id);
+            if (cached != null) {
+                livres.put(id, cached);
+            } else if (id != null) {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return livres;
+        }
+        long stamp = CACHE.stamp();
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (List<Integer> chunk : DAOUtils.chunkIds(missing)) {
+                String sql = "SELECT * FROM livres WHERE id IN (" + DAOUtils.placeholders(chunk.size()) + ")";
+                
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setInt(i + 1, chunk.get(i));
+                    }
+                    
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            Livre livre = extractLivreFromResultSet(rs);
+                            livres.put(livre.getId(), livre);
+                            CACHE.put(livre.getId(), livre, stamp);
+                        }
+                    }
+                }
+            }
+        }
+        
+        return livres;
+    }
+
     /**
      * Récupère tous les livres.
      * 
@@ -149,6 +299,34 @@ public class LivreDAOImpl implements LivreDAO {
         return livres;
     }
 
+    /**
+     * Parcourt tous les livres en mode streaming, sans les charger en mémoire.
+     * 
+     * @return Un flux de tous les livres, à fermer par l'appelant
+     * @throws Exception En cas d'erreur lors de l'ouverture du flux
+     */
+    @Override
+    public Stream<Livre> streamAll() throws Exception {
+        return ResultSetStream.open("SELECT * FROM livres ORDER BY id", this::extractLivreFromResultSet);
+    }
+
+    /**
+     * Récupère une page de livres.
+     * Colonnes de tri autorisées : id, titre, auteur, isbn.
+     * 
+     * @param seekToken Le jeton de continuation de la page précédente, ou null pour la première page
+     * @param limit Le nombre maximal de livres de la page
+     * @param sortColumn La colonne de tri, ou null pour trier par ID
+     * @return La page de livres
+     * @throws Exception En cas d'erreur lors de la récupération
+     */
+    @Override
+    public Page<Livre> findPage(String seekToken, int limit, String sortColumn) throws Exception {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return PAGINATION.fetch(conn, "SELECT * FROM livres", null, null, sortColumn, seekToken, limit, this::extractLivres);
+        }
+    }
+
     /**
      * Recherche des livres par titre.
      * 
@@ -252,6 +430,22 @@ public class LivreDAOImpl implements LivreDAO {
         return livres;
     }
 
+    /**
+     * Récupère une page de livres disponibles.
+     * 
+     * @param seekToken Le jeton de continuation de la page précédente, ou null pour la première page
+     * @param limit Le nombre maximal de livres de la page
+     * @param sortColumn La colonne de tri, ou null pour trier par ID
+     * @return La page de livres disponibles
+     * @throws Exception En cas d'erreur lors de la recherche
+     */
+    @Override
+    public Page<Livre> findAvailablePage(String seekToken, int limit, String sortColumn) throws Exception {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return PAGINATION.fetch(conn, "SELECT * FROM livres", "disponible = 1", null, sortColumn, seekToken, limit, this::extractLivres);
+        }
+    }
+
     /**
      * Met à jour la disponibilité d'un livre.
      * 
@@ -264,15 +458,115 @@ public class LivreDAOImpl implements LivreDAO {
     public boolean updateDisponibilite(int id, boolean disponible) throws Exception {
         String sql = "UPDATE livres SET disponible = ? WHERE id = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setBoolean(1, disponible);
-            pstmt.setInt(2, id);
-            
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setBoolean(1, disponible);
+                pstmt.setInt(2, id);
+                
+                int affectedRows = pstmt.executeUpdate();
+                if (affectedRows > 0) {
+                    ChangeLog.record(conn, ChangeLog.LIVRE, ChangeLog.DISPONIBILITE, id);
+                }
+                conn.commit();
+                return affectedRows > 0;
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                CACHE.invalidate(id);
+            }
+        }
+    }
+    
+    /**
+     * Recherche des livres dans l'index du catalogue, construit au premier appel s'il ne l'est pas encore.
+     * Chaque mot saisi doit commencer un mot du titre, de l'auteur, de l'éditeur ou de l'ISBN,
+     * sans tenir compte des accents ni de la casse.
+     * 
+     * @param query La saisie
+     * @param limit Le nombre maximal de livres renvoyés
+     * @return Les livres trouvés, sans doublon, du plus pertinent au moins pertinent
+     * @throws Exception En cas d'erreur lors de la construction de l'index ou du chargement des livres
+     */
+    @Override
+    public List<Livre> search(String query, int limit) throws Exception {
+        return SEARCH_INDEX.search(this, query, limit);
+    }
+    
+    /**
+     * Construit l'index de recherche du catalogue en arrière-plan, pour que la première recherche n'attende pas.
+     * À appeler au démarrage de l'application.
+     */
+    public static void buildSearchIndexInBackground() {
+        SEARCH_INDEX.buildInBackground(new LivreDAOImpl());
+    }
+    
+    /**
+     * Répercute sur l'index de recherche les modifications faites par d'autres clients.
+     * 
+     * @param changedIds Les IDs des livres insérés ou modifiés
+     * @param deletedIds Les IDs des livres supprimés
+     * @throws Exception En cas d'erreur lors de la relecture des livres
+     */
+    static void refreshSearchIndex(Collection<Integer> changedIds, Collection<Integer> deletedIds) throws Exception {
+        SEARCH_INDEX.refresh(new LivreDAOImpl(), changedIds, deletedIds);
+    }
+    
+    /**
+     * Retire un livre du cache après une modification faite hors de ce DAO.
+     * 
+     * @param id L'ID du livre
+     */
+    static void invalidateCached(int id) {
+        CACHE.invalidate(id);
+    }
+    
+    /**
+     * Positionne les paramètres de la requête d'insertion.
+     * 
+     * @param pstmt La requête préparée INSERT_SQL
+     * @param livre Le livre à insérer
+     * @throws SQLException En cas d'erreur lors du positionnement
+     */
+    private void bindInsertParameters(PreparedStatement pstmt, Livre livre) throws SQLException {
+        pstmt.setString(1, livre.getTitre());
+        pstmt.setString(2, livre.getAuteur());
+        pstmt.setString(3, livre.getIsbn());
+        pstmt.setInt(4, livre.getAnneePublication());
+        pstmt.setString(5, livre.getEditeur());
+        pstmt.setBoolean(6, livre.isDisponible());
+    }
+    
+    /**
+     * Positionne les paramètres de la requête de mise à jour.
+     * 
+     * @param pstmt La requête préparée UPDATE_SQL
+     * @param livre Le livre à mettre à jour
+     * @throws SQLException En cas d'erreur lors du positionnement
+     */
+    private void bindUpdateParameters(PreparedStatement pstmt, Livre livre) throws SQLException {
+        bindInsertParameters(pstmt, livre);
+        pstmt.setInt(7, livre.getId());
+    }
+    
+    /**
+     * Exécute une requête préparée et extrait tous les livres du résultat.
+     * 
+     * @param pstmt La requête préparée, paramètres déjà positionnés
+     * @return Liste des livres
+     * @throws SQLException En cas d'erreur lors de l'exécution
+     */
+    private List<Livre> extractLivres(PreparedStatement pstmt) throws SQLException {
+        List<Livre> livres = new ArrayList<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                livres.add(extractLivreFromResultSet(rs));
+            }
         }
+        return livres;
     }
     
     /**
@@ -1,17 +1,52 @@
 package dao.impl;
 
+import dao.BatchResult;
 import dao.MembreDAO;
+import dao.Page;
 import models.Membre;
 import utils.DatabaseConnection;
+import utils.Dates;
+import utils.EntityCache;
+import utils.TrigramIndex;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Implémentation de l'interface MembreDAO pour les opérations CRUD sur les membres.
  */
 public class MembreDAOImpl implements MembreDAO {
+    
+    /**
+     * Cache partagé par toutes les instances, les contrôleurs créant chacun leur DAO.
+     */
+    private static final EntityCache<Membre> CACHE = new EntityCache<>("membres", m -> new Membre(m.getId(), m.getNom(), m.getPrenom(), m.getEmail(), m.getTelephone(), m.getAdresse(), m.getDateInscription()));
+    
+    /**
+     * Requête de base ; la date d'inscription est lue en jours depuis le 1970-01-01.
+     */
+    private static final String SELECT_MEMBRES = "SELECT m.id, m.nom, m.prenom, m.email, m.telephone, m.adresse, "
+            + Dates.epochDaySql("m.date_inscription") + " AS date_inscription FROM membres m";
+    
+    /**
+     * Index de recherche approximative des membres, partagé comme le cache.
+     */
+    private static final SearchIndex<Membre> SEARCH_INDEX = new SearchIndex<>("membres", new TrigramIndex(),
+            Membre::getId, m -> new String[] {m.getNom(), m.getPrenom(), m.getEmail()});
+    
+    private static final String INSERT_SQL = "INSERT INTO membres (nom, prenom, email, telephone, adresse, date_inscription) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE membres SET nom = ?, prenom = ?, email = ?, telephone = ?, adresse = ?, date_inscription = ? WHERE id = ?";
+    
+    private static final KeysetPagination<Membre> PAGINATION = new KeysetPagination<Membre>("m.id", Membre::getId)
+            .sortable("nom", "nom", Membre::getNom)
+            .sortable("prenom", "prenom", Membre::getPrenom)
+            .sortable("email", "email", Membre::getEmail)
+            .sortable("date_inscription", "m.date_inscription", m -> Dates.format(m.getDateInscription()));
 
     /**
      * Insère un nouveau membre dans la base de données.
@@ -22,34 +57,39 @@ public class MembreDAOImpl implements MembreDAO {
      */
     @Override
     public Membre insert(Membre membre) throws Exception {
-        String sql = "INSERT INTO membres (nom, prenom, email, telephone, adresse, date_inscription) VALUES (?, ?, ?, ?, ?, ?)";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setString(1, membre.getNom());
-            pstmt.setString(2, membre.getPrenom());
-            pstmt.setString(3, membre.getEmail());
-            pstmt.setString(4, membre.getTelephone());
-            pstmt.setString(5, membre.getAdresse());
-            pstmt.setString(6, membre.getDateInscription());
-            
-            int affectedRows = pstmt.executeUpdate();
-            
-            if (affectedRows == 0) {
-                throw new SQLException("La création du membre a échoué, aucune ligne affectée.");
-            }
-            
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    membre.setId(generatedKeys.getInt(1));
-                } else {
-                    throw new SQLException("La création du membre a échoué, aucun ID obtenu.");
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                
+                bindInsertParameters(pstmt, membre);
+                
+                int affectedRows = pstmt.executeUpdate();
+                
+                if (affectedRows == 0) {
+                    throw new SQLException("La création du membre a échoué, aucune ligne affectée.");
                 }
+                
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        membre.setId(generatedKeys.getInt(1));
+                    } else {
+                        throw new SQLException("La création du membre a échoué, aucun ID obtenu.");
+                    }
+                }
+                
+                ChangeLog.record(conn, ChangeLog.MEMBRE, ChangeLog.INSERT, membre.getId());
+                conn.commit();
+            } catch (Exception e) {
+                conn.rollback();
+                membre.setId(0);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
-            
-            return membre;
         }
+        
+        SEARCH_INDEX.put(membre);
+        return membre;
     }
 
     /**
@@ -61,22 +101,66 @@ public class MembreDAOImpl implements MembreDAO {
      */
     @Override
     public boolean update(Membre membre) throws Exception {
-        String sql = "UPDATE membres SET nom = ?, prenom = ?, email = ?, telephone = ?, adresse = ?, date_inscription = ? WHERE id = ?";
+        int affectedRows;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+                
+                bindUpdateParameters(pstmt, membre);
+                
+                affectedRows = pstmt.executeUpdate();
+                if (affectedRows > 0) {
+                    ChangeLog.record(conn, ChangeLog.MEMBRE, ChangeLog.UPDATE, membre.getId());
+                }
+                conn.commit();
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                CACHE.invalidate(membre.getId());
+            }
+        }
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, membre.getNom());
-            pstmt.setString(2, membre.getPrenom());
-            pstmt.setString(3, membre.getEmail());
-            pstmt.setString(4, membre.getTelephone());
-            pstmt.setString(5, membre.getAdresse());
-            pstmt.setString(6, membre.getDateInscription());
-            pstmt.setInt(7, membre.getId());
-            
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+        if (affectedRows > 0) {
+            SEARCH_INDEX.put(membre);
         }
+        return affectedRows > 0;
+    }
+
+    /**
+     * Insère plusieurs membres par lots JDBC.
+     * 
+     * @param membres Les membres à insérer
+     * @return Le résultat du lot : IDs générés et erreurs par ligne
+     * @throws Exception Si aucune connexion n'a pu être obtenue
+     */
+    @Override
+    public BatchResult insertAll(List<Membre> membres) throws Exception {
+        BatchResult result = BatchExecutor.insert(INSERT_SQL, membres, this::bindInsertParameters, Membre::setId, ChangeLog.MEMBRE);
+        SEARCH_INDEX.putAll(membres, result.getSuccessIds());
+        return result;
+    }
+
+    /**
+     * Met à jour plusieurs membres par lots JDBC.
+     * 
+     * @param membres Les membres à mettre à jour
+     * @return Le résultat du lot : IDs mis à jour et erreurs par ligne
+     * @throws Exception Si aucune connexion n'a pu être obtenue
+     */
+    @Override
+    public BatchResult updateAll(List<Membre> membres) throws Exception {
+        BatchResult result;
+        try {
+            result = BatchExecutor.update(UPDATE_SQL, membres, this::bindUpdateParameters, Membre::getId, ChangeLog.MEMBRE);
+        } finally {
+            for (Membre membre : membres) {
+                CACHE.invalidate(membre.getId());
+            }
+        }
+        SEARCH_INDEX.putAll(membres, result.getSuccessIds());
+        return result;
     }
 
     /**
@@ -90,14 +174,31 @@ public class MembreDAOImpl implements MembreDAO {
     public boolean delete(int id) throws Exception {
         String sql = "DELETE FROM membres WHERE id = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+        int affectedRows;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, id);
+                
+                affectedRows = pstmt.executeUpdate();
+                if (affectedRows > 0) {
+                    ChangeLog.record(conn, ChangeLog.MEMBRE, ChangeLog.DELETE, id);
+                }
+                conn.commit();
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                CACHE.invalidate(id);
+            }
+        }
+        
+        if (affectedRows > 0) {
+            SEARCH_INDEX.remove(id);
         }
+        return affectedRows > 0;
     }
 
     /**
@@ -109,7 +210,13 @@ public class MembreDAOImpl implements MembreDAO {
      */
     @Override
     public Membre findById(int id) throws Exception {
-        String sql = "SELECT * FROM membres WHERE id = ?";
+        Membre cached = CACHE.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = CACHE.stamp();
+        
+        String sql = SELECT_MEMBRES + " WHERE id = ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -118,7 +225,9 @@ public class MembreDAOImpl implements MembreDAO {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return extractMembreFromResultSet(rs);
+                    Membre membre = extractMembreFromResultSet(rs);
+                    CACHE.put(id, membre, stamp);
+                    return membre;
                 }
             }
         }
@@ -126,6 +235,53 @@ public class MembreDAOImpl implements MembreDAO {
         return null;
     }
 
+    /**
+     * Récupère plusieurs membres par leurs IDs, par lots de requêtes IN (...).
+     * 
+     * @param ids Les IDs des membres à récupérer
+     * @return Une map ID → membre, sans entrée pour les IDs introuvables
+     * @throws Exception En cas d'erreur lors de la récupération
+     */
+    @Override
+    public Map<Integer, Membre> findByIds(Collection<Integer> ids) throws Exception {
+        Map<Integer, Membre> membres = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            Membre cached = id == null ? null : CACHE.get(id);
+            if (cached != null) {
+                membres.put(id, cached);
+            } else if (id != null) {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return membres;
+        }
+        long stamp = CACHE.stamp();
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (List<Integer> chunk : DAOUtils.chunkIds(missing)) {
+                String sql = SELECT_MEMBRES + " WHERE id IN (" + DAOUtils.placeholders(chunk.size()) + ")";
+                
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setInt(i + 1, chunk.get(i));
+                    }
+                    
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            Membre membre = extractMembreFromResultSet(rs);
+                            membres.put(membre.getId(), membre);
+                            CACHE.put(membre.getId(), membre, stamp);
+                        }
+                    }
+                }
+            }
+        }
+        
+        return membres;
+    }
+
     /**
      * Récupère tous les membres.
      * 
@@ -134,7 +290,7 @@ public class MembreDAOImpl implements MembreDAO {
      */
     @Override
     public List<Membre> findAll() throws Exception {
-        String sql = "SELECT * FROM membres";
+        String sql = SELECT_MEMBRES;
         List<Membre> membres = new ArrayList<>();
         
         try (Connection conn = DatabaseConnection.getConnection();
@@ -149,6 +305,34 @@ public class MembreDAOImpl implements MembreDAO {
         return membres;
     }
 
+    /**
+     * Parcourt tous les membres en mode streaming, sans les charger en mémoire.
+     * 
+     * @return Un flux de tous les membres, à fermer par l'appelant
+     * @throws Exception En cas d'erreur lors de l'ouverture du flux
+     */
+    @Override
+    public Stream<Membre> streamAll() throws Exception {
+        return ResultSetStream.open(SELECT_MEMBRES + " ORDER BY m.id", this::extractMembreFromResultSet);
+    }
+
+    /**
+     * Récupère une page de membres.
+     * Colonnes de tri autorisées : id, nom, prenom, email, date_inscription.
+     * 
+     * @param seekToken Le jeton de continuation de la page précédente, ou null pour la première page
+     * @param limit Le nombre maximal de membres de la page
+     * @param sortColumn La colonne de tri, ou null pour trier par ID
+     * @return La page de membres
+     * @throws Exception En cas d'erreur lors de la récupération
+     */
+    @Override
+    public Page<Membre> findPage(String seekToken, int limit, String sortColumn) throws Exception {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return PAGINATION.fetch(conn, SELECT_MEMBRES, null, null, sortColumn, seekToken, limit, this::extractMembres);
+        }
+    }
+
     /**
      * Recherche des membres par nom.
      * 
@@ -158,7 +342,7 @@ public class MembreDAOImpl implements MembreDAO {
      */
     @Override
     public List<Membre> findByNom(String nom) throws Exception {
-        String sql = "SELECT * FROM membres WHERE nom LIKE ?";
+        String sql = SELECT_MEMBRES + " WHERE nom LIKE ?";
         List<Membre> membres = new ArrayList<>();
         
         try (Connection conn = DatabaseConnection.getConnection();
@@ -176,6 +360,24 @@ public class MembreDAOImpl implements MembreDAO {
         return membres;
     }
 
+    /**
+     * Recherche une page de membres par nom.
+     * 
+     * @param nom Le nom à rechercher
+     * @param seekToken Le jeton de continuation de la page précédente, ou null pour la première page
+     * @param limit Le nombre maximal de membres de la page
+     * @param sortColumn La colonne de tri, ou null pour trier par ID
+     * @return La page de membres correspondant au nom
+     * @throws Exception En cas d'erreur lors de la recherche
+     */
+    @Override
+    public Page<Membre> findByNomPage(String nom, String seekToken, int limit, String sortColumn) throws Exception {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return PAGINATION.fetch(conn, SELECT_MEMBRES, "nom LIKE ?", new Object[] { "%" + nom + "%" },
+                    sortColumn, seekToken, limit, this::extractMembres);
+        }
+    }
+
     /**
      * Recherche un membre par email.
      * 
@@ -185,7 +387,7 @@ public class MembreDAOImpl implements MembreDAO {
      */
     @Override
     public Membre findByEmail(String email) throws Exception {
-        String sql = "SELECT * FROM membres WHERE email = ?";
+        String sql = SELECT_MEMBRES + " WHERE email = ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -212,7 +414,7 @@ public class MembreDAOImpl implements MembreDAO {
      */
     @Override
     public List<Membre> findByNomComplet(String nom, String prenom) throws Exception {
-        String sql = "SELECT * FROM membres WHERE nom LIKE ? AND prenom LIKE ?";
+        String sql = SELECT_MEMBRES + " WHERE nom LIKE ? AND prenom LIKE ?";
         List<Membre> membres = new ArrayList<>();
         
         try (Connection conn = DatabaseConnection.getConnection();
@@ -231,6 +433,93 @@ public class MembreDAOImpl implements MembreDAO {
         return membres;
     }
     
+    /**
+     * Recherche approximative des membres par nom, prénom ou email, tolérante aux fautes de frappe,
+     * dans l'index de trigrammes construit au premier appel s'il ne l'est pas encore.
+     * 
+     * @param query La saisie
+     * @param limit Le nombre maximal de membres renvoyés
+     * @return Les membres trouvés, du plus proche au moins proche
+     * @throws Exception En cas d'erreur lors de la construction de l'index ou du chargement des membres
+     */
+    @Override
+    public List<Membre> search(String query, int limit) throws Exception {
+        return SEARCH_INDEX.search(this, query, limit);
+    }
+    
+    /**
+     * Construit l'index de recherche des membres en arrière-plan, pour que la première recherche n'attende pas.
+     * À appeler au démarrage de l'application.
+     */
+    public static void buildSearchIndexInBackground() {
+        SEARCH_INDEX.buildInBackground(new MembreDAOImpl());
+    }
+    
+    /**
+     * Répercute sur l'index de recherche les modifications faites par d'autres clients.
+     * 
+     * @param changedIds Les IDs des membres insérés ou modifiés
+     * @param deletedIds Les IDs des membres supprimés
+     * @throws Exception En cas d'erreur lors de la relecture des membres
+     */
+    static void refreshSearchIndex(Collection<Integer> changedIds, Collection<Integer> deletedIds) throws Exception {
+        SEARCH_INDEX.refresh(new MembreDAOImpl(), changedIds, deletedIds);
+    }
+    
+    /**
+     * Retire un membre du cache après une modification faite hors de ce DAO.
+     * 
+     * @param id L'ID du membre
+     */
+    static void invalidateCached(int id) {
+        CACHE.invalidate(id);
+    }
+    
+    /**
+     * Positionne les paramètres de la requête d'insertion.
+     * 
+     * @param pstmt La requête préparée INSERT_SQL
+     * @param membre Le membre à insérer
+     * @throws SQLException En cas d'erreur lors du positionnement
+     */
+    private void bindInsertParameters(PreparedStatement pstmt, Membre membre) throws SQLException {
+        pstmt.setString(1, membre.getNom());
+        pstmt.setString(2, membre.getPrenom());
+        pstmt.setString(3, membre.getEmail());
+        pstmt.setString(4, membre.getTelephone());
+        pstmt.setString(5, membre.getAdresse());
+        Dates.setEpochDay(pstmt, 6, membre.getDateInscription());
+    }
+    
+    /**
+     * Positionne les paramètres de la requête de mise à jour.
+     * 
+     * @param pstmt La requête préparée UPDATE_SQL
+     * @param membre Le membre à mettre à jour
+     * @throws SQLException En cas d'erreur lors du positionnement
+     */
+    private void bindUpdateParameters(PreparedStatement pstmt, Membre membre) throws SQLException {
+        bindInsertParameters(pstmt, membre);
+        pstmt.setInt(7, membre.getId());
+    }
+    
+    /**
+     * Exécute une requête préparée et extrait tous les membres du résultat.
+     * 
+     * @param pstmt La requête préparée, paramètres déjà positionnés
+     * @return Liste des membres
+     * @throws SQLException En cas d'erreur lors de l'exécution
+     */
+    private List<Membre> extractMembres(PreparedStatement pstmt) throws SQLException {
+        List<Membre> membres = new ArrayList<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                membres.add(extractMembreFromResultSet(rs));
+            }
+        }
+        return membres;
+    }
+    
     /**
      * Extrait un objet Membre d'un ResultSet.
      * 
@@ -246,7 +535,7 @@ public class MembreDAOImpl implements MembreDAO {
         membre.setEmail(rs.getString("email"));
         membre.setTelephone(rs.getString("telephone"));
         membre.setAdresse(rs.getString("adresse"));
-        membre.setDateInscription(rs.getString("date_inscription"));
+        membre.setDateInscription(Dates.getEpochDay(rs, "date_inscription"));
         return membre;
     }
 }
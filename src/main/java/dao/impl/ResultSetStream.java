@@ -0,0 +1,96 @@
+package dao.impl;
+
+import utils.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parcours d'un résultat de requête sous forme de Stream, sans le charger en mémoire.
+ * Le pilote MySQL est placé en mode streaming (fetch size Integer.MIN_VALUE) : les lignes
+ * sont lues depuis le réseau au fur et à mesure de la consommation du flux.
+ * 
+ * Le flux détient une connexion du pool jusqu'à sa fermeture ; il doit être utilisé
+ * dans un bloc try-with-resources. Aucune autre requête ne peut être exécutée sur
+ * cette connexion tant que le flux est ouvert.
+ */
+final class ResultSetStream {
+    
+    private ResultSetStream() {
+        // Classe utilitaire, pas d'instance
+    }
+    
+    /**
+     * Ouvre un flux sur le résultat d'une requête.
+     * 
+     * @param <T> Type des entités produites
+     * @param sql La requête SQL, sans paramètres
+     * @param mapper La fonction de conversion des lignes
+     * @return Un flux à fermer par l'appelant
+     * @throws SQLException En cas d'erreur lors de l'exécution de la requête
+     */
+    static <T> Stream<T> open(String sql, RowMapper<T> mapper) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        
+        try {
+            pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(Integer.MIN_VALUE);
+            rs = pstmt.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            closeQuietly(rs, pstmt, conn);
+            throw e;
+        }
+        
+        final ResultSet resultSet = rs;
+        final PreparedStatement statement = pstmt;
+        
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!resultSet.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(resultSet));
+                    return true;
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Erreur lors de la lecture du flux: " + e.getMessage(), e);
+                }
+            }
+        };
+        
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> closeQuietly(resultSet, statement, conn));
+    }
+    
+    /**
+     * Ferme les ressources JDBC d'un flux en ignorant les erreurs.
+     */
+    private static void closeQuietly(ResultSet rs, PreparedStatement pstmt, Connection conn) {
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la fermeture du ResultSet: " + e.getMessage());
+        }
+        try {
+            if (pstmt != null) {
+                pstmt.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la fermeture du Statement: " + e.getMessage());
+        }
+        DatabaseConnection.releaseConnection(conn);
+    }
+}
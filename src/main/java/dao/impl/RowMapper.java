@@ -0,0 +1,22 @@
+package dao.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Fonction de conversion de la ligne courante d'un ResultSet en entité.
+ * 
+ * @param <T> Type de l'entité produite
+ */
+@FunctionalInterface
+interface RowMapper<T> {
+    
+    /**
+     * Convertit la ligne courante du ResultSet.
+     * 
+     * @param rs Le ResultSet positionné sur la ligne à convertir
+     * @return L'entité correspondante
+     * @throws SQLException En cas d'erreur lors de l'extraction
+     */
+    T map(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,262 @@
+package dao.impl;
+
+import dao.DAO;
+import utils.TextIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Index de recherche en mémoire d'une table, partagé par les instances d'un DAO.
+ * Construit une fois par un parcours en streaming de la table, puis tenu à jour par les
+ * écritures du DAO et par le journal des modifications des autres clients.
+ *
+ * @param <T> Type des entités indexées
+ */
+final class SearchIndex<T> {
+
+    private final String name;
+    private final TextIndex index;
+    private final ToIntFunction<T> idOf;
+    private final Function<T, String[]> fieldsOf;
+
+    // Ordonne les écritures et la construction, protège touched et pending
+    private final Object writeLock = new Object();
+    // IDs écrits pendant la construction : leur ligne lue par le parcours est peut-être périmée
+    private Set<Integer> touched;
+    // IDs modifiés par d'autres clients pendant la construction, à relire une fois le parcours terminé
+    private Set<Integer> pending;
+    private volatile boolean ready;
+
+    /**
+     * Constructeur.
+     *
+     * @param name Le nom de la table, pour les messages
+     * @param index L'index sous-jacent
+     * @param idOf La fonction donnant l'ID d'une entité
+     * @param fieldsOf La fonction donnant les champs indexés d'une entité, dans l'ordre attendu par l'index
+     */
+    SearchIndex(String name, TextIndex index, ToIntFunction<T> idOf, Function<T, String[]> fieldsOf) {
+        this.name = name;
+        this.index = index;
+        this.idOf = idOf;
+        this.fieldsOf = fieldsOf;
+    }
+
+    /**
+     * Construit l'index s'il ne l'est pas encore. Les appels concurrents attendent la fin de la construction.
+     * Le parcours lit un instantané de la table pris à son début : les entités modifiées par d'autres
+     * clients entre-temps sont relues ensuite, jusqu'à ce qu'aucune nouvelle modification n'arrive.
+     *
+     * @param dao Le DAO utilisé pour parcourir la table
+     * @throws Exception En cas d'erreur lors du parcours ; l'index reste à construire
+     */
+    synchronized void ensureBuilt(DAO<T> dao) throws Exception {
+        if (ready) {
+            return;
+        }
+        long start = System.nanoTime();
+        synchronized (writeLock) {
+            touched = new HashSet<>();
+            pending = new HashSet<>();
+        }
+        try {
+            try (Stream<T> entities = dao.streamAll()) {
+                entities.forEach(entity -> {
+                    synchronized (writeLock) {
+                        if (!touched.contains(idOf.applyAsInt(entity))) {
+                            index.put(idOf.applyAsInt(entity), fieldsOf.apply(entity));
+                        }
+                    }
+                });
+            }
+            while (!rereadPending(dao)) {
+                // Nouvelles modifications arrivées pendant la relecture : on recommence
+            }
+        } catch (Exception | Error e) {
+            index.clear();
+            synchronized (writeLock) {
+                touched = null;
+                pending = null;
+            }
+            throw e;
+        }
+        System.out.println("Index de recherche des " + name + " construit: " + index.size() + " entrées en "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Relit les entités modifiées par d'autres clients depuis le début de la construction ou de la
+     * relecture précédente. L'index est déclaré prêt, dans le même verrou, s'il n'y a plus rien à relire.
+     *
+     * @param dao Le DAO utilisé pour relire les entités
+     * @return true si l'index est prêt, false s'il reste des modifications à relire
+     * @throws Exception En cas d'erreur lors de la relecture
+     */
+    private boolean rereadPending(DAO<T> dao) throws Exception {
+        Set<Integer> ids;
+        synchronized (writeLock) {
+            if (pending.isEmpty()) {
+                ready = true;
+                touched = null;
+                pending = null;
+                return true;
+            }
+            ids = pending;
+            pending = new HashSet<>();
+            // Seules les écritures postérieures à la relecture doivent l'emporter sur elle
+            touched = new HashSet<>();
+        }
+
+        Map<Integer, T> entities = dao.findByIds(ids);
+        synchronized (writeLock) {
+            for (int id : ids) {
+                if (touched.contains(id)) {
+                    continue;
+                }
+                T entity = entities.get(id);
+                if (entity != null) {
+                    index.put(id, fieldsOf.apply(entity));
+                } else {
+                    index.remove(id);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Construit l'index en arrière-plan, pour que la première recherche n'attende pas.
+     *
+     * @param dao Le DAO utilisé pour parcourir la table
+     */
+    void buildInBackground(DAO<T> dao) {
+        Thread thread = new Thread(() -> {
+            try {
+                ensureBuilt(dao);
+            } catch (Exception e) {
+                System.err.println("Erreur lors de la construction de l'index de recherche des " + name + ": " + e.getMessage());
+            }
+        }, name + "-search-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Indexe une entité insérée ou modifiée.
+     *
+     * @param entity L'entité
+     */
+    void put(T entity) {
+        int id = idOf.applyAsInt(entity);
+        synchronized (writeLock) {
+            if (touched != null) {
+                touched.add(id);
+            }
+            index.put(id, fieldsOf.apply(entity));
+        }
+    }
+
+    /**
+     * Indexe les entités écrites avec succès par un lot.
+     *
+     * @param entities Les entités du lot
+     * @param successIds Les IDs écrits avec succès
+     */
+    void putAll(List<T> entities, Collection<Integer> successIds) {
+        Set<Integer> succeeded = new HashSet<>(successIds);
+        for (T entity : entities) {
+            if (succeeded.contains(idOf.applyAsInt(entity))) {
+                put(entity);
+            }
+        }
+    }
+
+    /**
+     * Retire une entité supprimée.
+     *
+     * @param id L'ID de l'entité
+     */
+    void remove(int id) {
+        synchronized (writeLock) {
+            if (touched != null) {
+                touched.add(id);
+            }
+            index.remove(id);
+        }
+    }
+
+    /**
+     * Répercute les modifications faites par d'autres clients en relisant les entités modifiées.
+     * Pendant la construction, les IDs sont mis de côté et relus à la fin du parcours ;
+     * avant toute construction, l'appel est sans effet puisque le parcours lira l'état à jour.
+     *
+     * @param dao Le DAO utilisé pour relire les entités
+     * @param changedIds Les IDs des entités insérées ou modifiées
+     * @param deletedIds Les IDs des entités supprimées
+     * @throws Exception En cas d'erreur lors de la relecture
+     */
+    void refresh(DAO<T> dao, Collection<Integer> changedIds, Collection<Integer> deletedIds) throws Exception {
+        if (!ready) {
+            synchronized (writeLock) {
+                if (!ready) {
+                    if (pending != null) {
+                        pending.addAll(changedIds);
+                        pending.addAll(deletedIds);
+                    }
+                    return;
+                }
+            }
+        }
+        for (int id : deletedIds) {
+            remove(id);
+        }
+        if (!changedIds.isEmpty()) {
+            Map<Integer, T> entities = dao.findByIds(changedIds);
+            for (int id : changedIds) {
+                T entity = entities.get(id);
+                if (entity != null) {
+                    put(entity);
+                } else {
+                    remove(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Recherche des entités, en construisant l'index au premier appel si nécessaire,
+     * puis les charge par ID dans l'ordre de pertinence.
+     *
+     * @param dao Le DAO utilisé pour construire l'index et charger les entités
+     * @param query La saisie
+     * @param limit Le nombre maximal d'entités renvoyées
+     * @return Les entités trouvées, sans doublon, de la plus pertinente à la moins pertinente
+     * @throws Exception En cas d'erreur lors de la construction de l'index ou du chargement
+     */
+    List<T> search(DAO<T> dao, String query, int limit) throws Exception {
+        ensureBuilt(dao);
+        int[] ids = index.search(query, limit);
+        List<Integer> idList = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            idList.add(id);
+        }
+
+        Map<Integer, T> found = dao.findByIds(idList);
+        List<T> entities = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            T entity = found.get(id);
+            if (entity != null) {
+                entities.add(entity);
+            }
+        }
+        return entities;
+    }
+}
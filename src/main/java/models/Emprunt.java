@@ -1,17 +1,19 @@
 package models;
 
 import javafx.beans.property.*;
+import utils.Dates;
 
 /**
  * Classe représentant un emprunt de livre dans le système de gestion de bibliothèque.
+ * Les dates sont exprimées en jours depuis le 1970-01-01 ({@link Dates}).
  */
 public class Emprunt {
     private final IntegerProperty id = new SimpleIntegerProperty();
     private final IntegerProperty livreId = new SimpleIntegerProperty();
     private final IntegerProperty membreId = new SimpleIntegerProperty();
-    private final StringProperty dateEmprunt = new SimpleStringProperty();
-    private final StringProperty dateRetourPrevue = new SimpleStringProperty();
-    private final StringProperty dateRetourReelle = new SimpleStringProperty();
+    private final LongProperty dateEmprunt = new SimpleLongProperty(Dates.NONE);
+    private final LongProperty dateRetourPrevue = new SimpleLongProperty(Dates.NONE);
+    private final LongProperty dateRetourReelle = new SimpleLongProperty(Dates.NONE);
     
     private final ObjectProperty<Livre> livre = new SimpleObjectProperty<>();
     private final ObjectProperty<Membre> membre = new SimpleObjectProperty<>();
@@ -30,9 +32,9 @@ public class Emprunt {
      * @param membreId Identifiant du membre emprunteur
      * @param dateEmprunt Date de l'emprunt
      * @param dateRetourPrevue Date de retour prévue
-     * @param dateRetourReelle Date de retour réelle (peut être null)
+     * @param dateRetourReelle Date de retour réelle ({@link Dates#NONE} si non retourné)
      */
-    public Emprunt(int id, int livreId, int membreId, String dateEmprunt, String dateRetourPrevue, String dateRetourReelle) {
+    public Emprunt(int id, int livreId, int membreId, long dateEmprunt, long dateRetourPrevue, long dateRetourReelle) {
         this.id.set(id);
         this.livreId.set(livreId);
         this.membreId.set(membreId);
@@ -49,7 +51,7 @@ public class Emprunt {
      * @param dateEmprunt Date de l'emprunt
      * @param dateRetourPrevue Date de retour prévue
      */
-    public Emprunt(int livreId, int membreId, String dateEmprunt, String dateRetourPrevue) {
+    public Emprunt(int livreId, int membreId, long dateEmprunt, long dateRetourPrevue) {
         this.livreId.set(livreId);
         this.membreId.set(membreId);
         this.dateEmprunt.set(dateEmprunt);
@@ -92,39 +94,39 @@ public class Emprunt {
         return membreId;
     }
 
-    public String getDateEmprunt() {
+    public long getDateEmprunt() {
         return dateEmprunt.get();
     }
 
-    public void setDateEmprunt(String dateEmprunt) {
+    public void setDateEmprunt(long dateEmprunt) {
         this.dateEmprunt.set(dateEmprunt);
     }
 
-    public StringProperty dateEmpruntProperty() {
+    public LongProperty dateEmpruntProperty() {
         return dateEmprunt;
     }
 
-    public String getDateRetourPrevue() {
+    public long getDateRetourPrevue() {
         return dateRetourPrevue.get();
     }
 
-    public void setDateRetourPrevue(String dateRetourPrevue) {
+    public void setDateRetourPrevue(long dateRetourPrevue) {
         this.dateRetourPrevue.set(dateRetourPrevue);
     }
 
-    public StringProperty dateRetourPrevueProperty() {
+    public LongProperty dateRetourPrevueProperty() {
         return dateRetourPrevue;
     }
 
-    public String getDateRetourReelle() {
+    public long getDateRetourReelle() {
         return dateRetourReelle.get();
     }
 
-    public void setDateRetourReelle(String dateRetourReelle) {
+    public void setDateRetourReelle(long dateRetourReelle) {
         this.dateRetourReelle.set(dateRetourReelle);
     }
 
-    public StringProperty dateRetourReelleProperty() {
+    public LongProperty dateRetourReelleProperty() {
         return dateRetourReelle;
     }
     
@@ -158,7 +160,46 @@ public class Emprunt {
      * @return true si l'emprunt est en cours, false sinon
      */
     public boolean isEnCours() {
-        return dateRetourReelle.get() == null || dateRetourReelle.get().isEmpty();
+        return dateRetourReelle.get() == Dates.NONE;
+    }
+
+    /**
+     * Vérifie si l'emprunt est en retard à une date donnée.
+     * 
+     * @param today Le jour de référence
+     * @return true si l'emprunt est en cours et que sa date de retour prévue est dépassée
+     */
+    public boolean isEnRetard(long today) {
+        return isEnCours() && dateRetourPrevue.get() < today;
+    }
+
+    /**
+     * Recopie dans cet emprunt les valeurs d'un autre emprunt de même ID.
+     * Le livre et le membre liés sont mis à jour sur place s'ils n'ont pas changé d'ID,
+     * remplacés sinon.
+     * 
+     * @param other L'emprunt relu depuis la base
+     */
+    public void copyFrom(Emprunt other) {
+        setLivreId(other.getLivreId());
+        setMembreId(other.getMembreId());
+        setDateEmprunt(other.getDateEmprunt());
+        setDateRetourPrevue(other.getDateRetourPrevue());
+        setDateRetourReelle(other.getDateRetourReelle());
+        
+        Livre otherLivre = other.getLivre();
+        if (getLivre() != null && otherLivre != null && getLivre().getId() == otherLivre.getId()) {
+            getLivre().copyFrom(otherLivre);
+        } else if (getLivre() != otherLivre) {
+            setLivre(otherLivre);
+        }
+        
+        Membre otherMembre = other.getMembre();
+        if (getMembre() != null && otherMembre != null && getMembre().getId() == otherMembre.getId()) {
+            getMembre().copyFrom(otherMembre);
+        } else if (getMembre() != otherMembre) {
+            setMembre(otherMembre);
+        }
     }
 
     @Override
@@ -167,9 +208,9 @@ public class Emprunt {
                 "id=" + getId() +
                 ", livreId=" + getLivreId() +
                 ", membreId=" + getMembreId() +
-                ", dateEmprunt='" + getDateEmprunt() + '\'' +
-                ", dateRetourPrevue='" + getDateRetourPrevue() + '\'' +
-                ", dateRetourReelle='" + getDateRetourReelle() + '\'' +
+                ", dateEmprunt='" + Dates.format(getDateEmprunt()) + '\'' +
+                ", dateRetourPrevue='" + Dates.format(getDateRetourPrevue()) + '\'' +
+                ", dateRetourReelle='" + Dates.format(getDateRetourReelle()) + '\'' +
                 '}';
     }
 }
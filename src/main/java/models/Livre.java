@@ -1,6 +1,7 @@
 package models;
 
 import javafx.beans.property.*;
+import java.util.Objects;
 
 /**
  * Classe représentant un livre dans le système de gestion de bibliothèque.
@@ -144,6 +145,29 @@ public class Livre {
         return disponible;
     }
 
+    /**
+     * Recopie dans ce livre les valeurs d'un autre livre de même ID.
+     * Seules les propriétés dont la valeur change sont modifiées et notifient leurs observateurs.
+     * 
+     * @param other Le livre relu depuis la base
+     */
+    public void copyFrom(Livre other) {
+        if (!Objects.equals(getTitre(), other.getTitre())) {
+            setTitre(other.getTitre());
+        }
+        if (!Objects.equals(getAuteur(), other.getAuteur())) {
+            setAuteur(other.getAuteur());
+        }
+        if (!Objects.equals(getIsbn(), other.getIsbn())) {
+            setIsbn(other.getIsbn());
+        }
+        setAnneePublication(other.getAnneePublication());
+        if (!Objects.equals(getEditeur(), other.getEditeur())) {
+            setEditeur(other.getEditeur());
+        }
+        setDisponible(other.isDisponible());
+    }
+
     @Override
     public String toString() {
         return getTitre() + " (" + getAuteur() + ")";
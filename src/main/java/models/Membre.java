@@ -1,9 +1,12 @@
 package models;
 
 import javafx.beans.property.*;
+import java.util.Objects;
+import utils.Dates;
 
 /**
  * Classe représentant un membre de la bibliothèque.
+ * La date d'inscription est exprimée en jours depuis le 1970-01-01 ({@link Dates}).
  */
 public class Membre {
     private final IntegerProperty id = new SimpleIntegerProperty();
@@ -12,7 +15,7 @@ public class Membre {
     private final StringProperty email = new SimpleStringProperty();
     private final StringProperty telephone = new SimpleStringProperty();
     private final StringProperty adresse = new SimpleStringProperty();
-    private final StringProperty dateInscription = new SimpleStringProperty();
+    private final LongProperty dateInscription = new SimpleLongProperty(Dates.NONE);
 
     /**
      * Constructeur par défaut.
@@ -31,7 +34,7 @@ public class Membre {
      * @param adresse Adresse postale du membre
      * @param dateInscription Date d'inscription du membre
      */
-    public Membre(int id, String nom, String prenom, String email, String telephone, String adresse, String dateInscription) {
+    public Membre(int id, String nom, String prenom, String email, String telephone, String adresse, long dateInscription) {
         this.id.set(id);
         this.nom.set(nom);
         this.prenom.set(prenom);
@@ -51,7 +54,7 @@ public class Membre {
      * @param adresse Adresse postale du membre
      * @param dateInscription Date d'inscription du membre
      */
-    public Membre(String nom, String prenom, String email, String telephone, String adresse, String dateInscription) {
+    public Membre(String nom, String prenom, String email, String telephone, String adresse, long dateInscription) {
         this.nom.set(nom);
         this.prenom.set(prenom);
         this.email.set(email);
@@ -132,18 +135,43 @@ public class Membre {
         return adresse;
     }
 
-    public String getDateInscription() {
+    public long getDateInscription() {
         return dateInscription.get();
     }
 
-    public void setDateInscription(String dateInscription) {
+    public void setDateInscription(long dateInscription) {
         this.dateInscription.set(dateInscription);
     }
 
-    public StringProperty dateInscriptionProperty() {
+    public LongProperty dateInscriptionProperty() {
         return dateInscription;
     }
 
+    /**
+     * Recopie dans ce membre les valeurs d'un autre membre de même ID.
+     * Seules les propriétés dont la valeur change sont modifiées et notifient leurs observateurs.
+     * 
+     * @param other Le membre relu depuis la base
+     */
+    public void copyFrom(Membre other) {
+        if (!Objects.equals(getNom(), other.getNom())) {
+            setNom(other.getNom());
+        }
+        if (!Objects.equals(getPrenom(), other.getPrenom())) {
+            setPrenom(other.getPrenom());
+        }
+        if (!Objects.equals(getEmail(), other.getEmail())) {
+            setEmail(other.getEmail());
+        }
+        if (!Objects.equals(getTelephone(), other.getTelephone())) {
+            setTelephone(other.getTelephone());
+        }
+        if (!Objects.equals(getAdresse(), other.getAdresse())) {
+            setAdresse(other.getAdresse());
+        }
+        setDateInscription(other.getDateInscription());
+    }
+
     @Override
     public String toString() {
         return getNomComplet();
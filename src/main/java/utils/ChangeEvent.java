@@ -0,0 +1,87 @@
+package utils;
+
+/**
+ * Modification d'une entité, publiée par {@link EventSystem#publishChange(ChangeEvent.Entity, int, ChangeEvent.Kind)}
+ * ou {@link EventSystem#publishChanges(java.util.Collection)}.
+ */
+public final class ChangeEvent {
+
+    /**
+     * Type d'entité modifiée.
+     */
+    public enum Entity {
+        LIVRE,
+        MEMBRE,
+        EMPRUNT
+    }
+
+    /**
+     * Type de modification.
+     */
+    public enum Kind {
+        INSERT,
+        UPDATE,
+        DELETE,
+        /**
+         * Seule la disponibilité d'un livre a changé (emprunt, retour).
+         */
+        DISPONIBILITE;
+
+        /**
+         * Fusionne deux modifications successives d'une même entité.
+         * Une suppression l'emporte sur toute autre modification, qu'elle la précède ou la suive,
+         * sauf une suppression suivie d'une insertion, qui reste une insertion ; sinon la
+         * modification la plus large est conservée (une insertion suivie d'une mise à jour reste
+         * une insertion).
+         *
+         * @param next La modification suivante
+         * @return La modification résultante
+         */
+        public Kind merge(Kind next) {
+            if (this == DELETE) {
+                return next == INSERT ? INSERT : DELETE;
+            }
+            if (next == DELETE) {
+                return DELETE;
+            }
+            if (this == INSERT || next == INSERT) {
+                return INSERT;
+            }
+            return (this == UPDATE || next == UPDATE) ? UPDATE : DISPONIBILITE;
+        }
+    }
+
+    private final Entity entity;
+    private final int id;
+    private final Kind kind;
+
+    /**
+     * Constructeur.
+     *
+     * @param entity Le type d'entité
+     * @param id L'ID de l'entité
+     * @param kind Le type de modification
+     */
+    public ChangeEvent(Entity entity, int id, Kind kind) {
+        this.entity = entity;
+        this.id = id;
+        this.kind = kind;
+    }
+
+    public Entity getEntity() {
+        return entity;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    @Override
+    public String toString() {
+        return entity + "#" + id + " " + kind;
+    }
+}
@@ -0,0 +1,94 @@
+package utils;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ensemble fusionné des modifications publiées pendant une même impulsion de l'interface.
+ * Chaque entité n'y figure qu'une fois, avec la fusion de ses modifications successives.
+ */
+public final class ChangeSet {
+
+    private final Map<ChangeEvent.Entity, Map<Integer, ChangeEvent.Kind>> changes =
+            new EnumMap<>(ChangeEvent.Entity.class);
+
+    /**
+     * Ajoute une modification, fusionnée avec celles déjà présentes pour la même entité.
+     *
+     * @param event La modification
+     */
+    public void add(ChangeEvent event) {
+        changes.computeIfAbsent(event.getEntity(), k -> new LinkedHashMap<>())
+                .merge(event.getId(), event.getKind(), ChangeEvent.Kind::merge);
+    }
+
+    /**
+     * Indique si l'ensemble ne contient aucune modification.
+     *
+     * @return true si l'ensemble est vide
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Indique si l'ensemble contient des modifications d'un type d'entité.
+     *
+     * @param entity Le type d'entité
+     * @return true si au moins une entité de ce type a été modifiée
+     */
+    public boolean contains(ChangeEvent.Entity entity) {
+        return changes.containsKey(entity);
+    }
+
+    /**
+     * Retourne les modifications d'un type d'entité.
+     *
+     * @param entity Le type d'entité
+     * @return Les modifications fusionnées par ID, dans l'ordre de publication
+     */
+    public Map<Integer, ChangeEvent.Kind> get(ChangeEvent.Entity entity) {
+        return Collections.unmodifiableMap(changes.getOrDefault(entity, Collections.emptyMap()));
+    }
+
+    /**
+     * Retourne les IDs supprimés d'un type d'entité.
+     *
+     * @param entity Le type d'entité
+     * @return Les IDs supprimés
+     */
+    public Set<Integer> deletedIds(ChangeEvent.Entity entity) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        get(entity).forEach((id, kind) -> {
+            if (kind == ChangeEvent.Kind.DELETE) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    /**
+     * Retourne les IDs insérés ou modifiés d'un type d'entité, à relire depuis la base.
+     *
+     * @param entity Le type d'entité
+     * @return Les IDs à relire
+     */
+    public Set<Integer> changedIds(ChangeEvent.Entity entity) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        get(entity).forEach((id, kind) -> {
+            if (kind != ChangeEvent.Kind.DELETE) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    @Override
+    public String toString() {
+        return changes.toString();
+    }
+}
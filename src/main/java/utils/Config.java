@@ -0,0 +1,77 @@
+package utils;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+/**
+ * Classe utilitaire donnant accès à la configuration de l'application.
+ * Les valeurs sont lues depuis le fichier .env du répertoire courant.
+ */
+public final class Config {
+
+    private static final Dotenv dotenv = Dotenv.configure()
+            .directory(System.getProperty("user.dir"))
+            .filename(".env")
+            .ignoreIfMissing()
+            .load();
+
+    private Config() {
+        // Classe utilitaire, pas d'instance
+    }
+
+    /**
+     * Lit une valeur de configuration.
+     *
+     * @param key La clé de configuration
+     * @param defaultValue La valeur par défaut si la clé est absente
+     * @return La valeur configurée ou la valeur par défaut
+     */
+    public static String get(String key, String defaultValue) {
+        return dotenv.get(key, defaultValue);
+    }
+
+    /**
+     * Lit une valeur de configuration entière.
+     *
+     * @param key La clé de configuration
+     * @param defaultValue La valeur par défaut si la clé est absente ou invalide
+     * @return La valeur configurée ou la valeur par défaut
+     */
+    public static int getInt(String key, int defaultValue) {
+        return (int) getLong(key, defaultValue);
+    }
+
+    /**
+     * Lit une valeur de configuration entière longue.
+     *
+     * @param key La clé de configuration
+     * @param defaultValue La valeur par défaut si la clé est absente ou invalide
+     * @return La valeur configurée ou la valeur par défaut
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = dotenv.get(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Valeur invalide pour " + key + ": " + value + ", utilisation de " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Lit une valeur de configuration booléenne.
+     *
+     * @param key La clé de configuration
+     * @param defaultValue La valeur par défaut si la clé est absente
+     * @return La valeur configurée ou la valeur par défaut
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = dotenv.get(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
+}
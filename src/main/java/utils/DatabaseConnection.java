@@ -2,236 +2,200 @@ package utils;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.util.stream.Collectors;
-
-import io.github.cdimascio.dotenv.Dotenv;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Classe utilitaire pour gérer la connexion à la base de données MySQL.
- * Implémente un pool de connexions basique pour éviter les problèmes de connexions fermées.
+ * Implémente un pool de connexions borné : les connexions physiques sont réutilisées
+ * et l'appel à close() sur la connexion obtenue la rend au pool.
  */
 public class DatabaseConnection {
-    private static final Dotenv dotenv = Dotenv.configure()
-            .directory(System.getProperty("user.dir"))
-            .filename(".env")
-            .ignoreIfMissing()
-            .load();
-    private static final String DB_HOST = dotenv.get("DB_HOST", "localhost");
-    private static final String DB_PORT = dotenv.get("DB_PORT", "3307");
-    private static final String DB_NAME = dotenv.get("DB_NAME", "bibliotheque");
-    private static final String DB_USER = dotenv.get("DB_USER", "root");
-    private static final String DB_PASSWORD = dotenv.get("DB_PASSWORD", "");
-    private static final String DB_URL = "jdbc:mysql://" + DB_HOST + ":" + DB_PORT + "/" + DB_NAME + "?createDatabaseIfNotExist=true&useSSL=false&serverTimezone=UTC";
+    private static final String DB_HOST = Config.get("DB_HOST", "localhost");
+    private static final String DB_PORT = Config.get("DB_PORT", "3307");
+    private static final String DB_NAME = Config.get("DB_NAME", "bibliotheque");
+    private static final String DB_USER = Config.get("DB_USER", "root");
+    private static final String DB_PASSWORD = Config.get("DB_PASSWORD", "");
+    private static final boolean SERVER_PREPARED_STATEMENTS = Config.getBoolean("DB_SERVER_PREPARED_STATEMENTS", false);
+    private static final boolean REWRITE_BATCHED_STATEMENTS = Config.getBoolean("DB_REWRITE_BATCHED_STATEMENTS", true);
+    private static final String DB_URL = "jdbc:mysql://" + DB_HOST + ":" + DB_PORT + "/" + DB_NAME + "?createDatabaseIfNotExist=true&useSSL=false&serverTimezone=UTC"
+            + (SERVER_PREPARED_STATEMENTS ? "&useServerPrepStmts=true" : "")
+            + (REWRITE_BATCHED_STATEMENTS ? "&rewriteBatchedStatements=true" : "");
     
-    private static final int MAX_CONNECTIONS = 10;
-    private static Connection[] connectionPool = new Connection[MAX_CONNECTIONS];
-    private static boolean[] connectionInUse = new boolean[MAX_CONNECTIONS];
-    private static boolean poolInitialized = false;
+    private static final int MAX_CONNECTIONS = Math.max(1, Config.getInt("DB_POOL_SIZE", 10));
+    private static final long ACQUIRE_TIMEOUT_MS = Config.getLong("DB_POOL_TIMEOUT_MS", 5000);
+    private static final int STATEMENT_CACHE_SIZE = Math.max(0, Config.getInt("DB_STATEMENT_CACHE_SIZE", 64));
+    private static final long VALIDATION_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(Config.getLong("DB_POOL_VALIDATION_MS", 30000));
     
-    /**
-     * Initialise le pool de connexions.
-     */
-    private static void initializePool() {
-
-        if (!poolInitialized) {
-            try {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                
-                for (int i = 0; i < MAX_CONNECTIONS; i++) {
-                    connectionPool[i] = null;
-                    connectionInUse[i] = false;
-                }
-                
-                poolInitialized = true;
-                System.out.println("Pool de connexions initialisé.");
-            } catch (ClassNotFoundException e) {
-                System.err.println("Driver MySQL non trouvé: " + e.getMessage());
-                e.printStackTrace();
-            }
+    private static final Semaphore permits = new Semaphore(MAX_CONNECTIONS, true);
+    private static final BlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private static volatile boolean shutdown = false;
+    
+    static {
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            System.err.println("Driver MySQL non trouvé: " + e.getMessage());
+            e.printStackTrace();
         }
     }
     
     /**
-     * Établit une connexion à la base de données depuis le pool.
+     * Obtient une connexion depuis le pool.
+     * Attend qu'une connexion se libère si le pool est saturé, dans la limite du délai configuré.
+     * La connexion doit être fermée par l'appelant pour être rendue au pool.
+     * 
      * @return Une instance de Connection
+     * @throws SQLException Si aucune connexion n'a pu être obtenue dans le délai imparti
      */
-    public static synchronized Connection getConnection() {
-        if (!poolInitialized) {
-            initializePool();
+    public static Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Le pool de connexions est fermé.");
+        }
+        
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(ACQUIRE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Attente d'une connexion interrompue.", e);
         }
         
-        for (int i = 0; i < MAX_CONNECTIONS; i++) {
-            if (!connectionInUse[i]) {
-                try {
-                    if (connectionPool[i] == null || connectionPool[i].isClosed()) {
-                        connectionPool[i] = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-                        System.out.println("Nouvelle connexion créée dans le pool (index " + i + ").");
-                    }
-                    
-                    connectionInUse[i] = true;
-                    return connectionPool[i];
-                } catch (SQLException e) {
-                    System.err.println("Erreur lors de la création d'une connexion: " + e.getMessage());
-                    e.printStackTrace();
+        if (!acquired) {
+            PoolMetrics.getInstance().recordExhausted();
+            throw new SQLTransientConnectionException("Pool de connexions saturé: aucune connexion libérée après "
+                    + ACQUIRE_TIMEOUT_MS + " ms (maximum " + MAX_CONNECTIONS + ").");
+        }
+        
+        try {
+            PooledConnection pooled;
+            while ((pooled = idleConnections.pollFirst()) != null) {
+                if (pooled.isUsable(pooled.idleLongerThan(VALIDATION_INTERVAL_NANOS))) {
+                    PoolMetrics.getInstance().recordAcquire(System.nanoTime() - start);
+                    return pooled.lease();
                 }
+                pooled.closePhysical();
             }
+            
+            pooled = new PooledConnection(DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD), STATEMENT_CACHE_SIZE);
+            PoolMetrics.getInstance().recordConnectionCreated();
+            PoolMetrics.getInstance().recordAcquire(System.nanoTime() - start);
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
         }
-        
+    }
+    
+    /**
+     * Rend une connexion physique au pool.
+     * Appelée par le proxy de connexion lors de sa fermeture.
+     * 
+     * @param pooled La connexion rendue
+     * @param reusable true si la connexion peut être réutilisée
+     */
+    static void release(PooledConnection pooled, boolean reusable) {
         try {
-            System.out.println("Pool de connexions saturé, création d'une connexion temporaire.");
-            return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-        } catch (SQLException e) {
-            System.err.println("Erreur lors de la création d'une connexion temporaire: " + e.getMessage());
-            e.printStackTrace();
-            return null;
+            if (reusable && !shutdown) {
+                idleConnections.offerFirst(pooled);
+            } else {
+                pooled.closePhysical();
+            }
+        } finally {
+            permits.release();
         }
     }
     
     /**
-     * Libère une connexion du pool.
+     * Retourne la taille maximale du pool.
+     * 
+     * @return Le nombre maximal de connexions simultanées
+     */
+    static int getMaxConnections() {
+        return MAX_CONNECTIONS;
+    }
+    
+    /**
+     * Retourne le nombre de connexions actuellement empruntées.
+     * 
+     * @return Le nombre de connexions empruntées
+     */
+    static int getActiveConnections() {
+        return MAX_CONNECTIONS - permits.availablePermits();
+    }
+    
+    /**
+     * Retourne le nombre de connexions physiques inactives dans le pool.
+     * 
+     * @return Le nombre de connexions inactives
+     */
+    static int getIdleConnections() {
+        return idleConnections.size();
+    }
+    
+    /**
+     * Retourne une estimation du nombre d'appelants en attente d'une connexion.
+     * 
+     * @return Le nombre d'appelants en attente
+     */
+    static int getPendingAcquires() {
+        return permits.getQueueLength();
+    }
+    
+    /**
+     * Retourne le nombre maximal de connexions du pool.
+     * 
+     * @return La capacité du pool (DB_POOL_SIZE)
+     */
+    public static int getPoolSize() {
+        return MAX_CONNECTIONS;
+    }
+    
+    /**
+     * Libère une connexion obtenue depuis le pool.
+     * Équivalent à l'appel de close() sur la connexion.
+     * 
      * @param connection La connexion à libérer
      */
-    public static synchronized void releaseConnection(Connection connection) {
+    public static void releaseConnection(Connection connection) {
         if (connection == null) return;
         
-        for (int i = 0; i < MAX_CONNECTIONS; i++) {
-            if (connection == connectionPool[i]) {
-                connectionInUse[i] = false;
-                System.out.println("Connexion libérée dans le pool (index " + i + ").");
-                return;
-            }
-        }
-        
         try {
             connection.close();
-            System.out.println("Connexion temporaire fermée.");
         } catch (SQLException e) {
-            System.err.println("Erreur lors de la fermeture d'une connexion temporaire: " + e.getMessage());
+            System.err.println("Erreur lors de la libération d'une connexion: " + e.getMessage());
         }
     }
     
     /**
      * Ferme toutes les connexions du pool.
+     * Les connexions encore empruntées seront fermées lors de leur retour.
      */
-    public static synchronized void closeAllConnections() {
-        for (int i = 0; i < MAX_CONNECTIONS; i++) {
-            if (connectionPool[i] != null) {
-                try {
-                    connectionPool[i].close();
-                    connectionPool[i] = null;
-                    connectionInUse[i] = false;
-                } catch (SQLException e) {
-                    System.err.println("Erreur lors de la fermeture d'une connexion du pool: " + e.getMessage());
-                }
-            }
+    public static void closeAllConnections() {
+        shutdown = true;
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            pooled.closePhysical();
         }
         System.out.println("Toutes les connexions du pool ont été fermées.");
     }
     
     /**
-     * Initialise la base de données en exécutant le script SQL.
+     * Initialise la base de données en appliquant les migrations de schéma en attente.
+     * Lorsque le schéma est à jour, cette vérification se limite à une seule requête.
      */
     public static void initializeDatabase() {
-        Connection conn = null;
-        Statement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.createStatement();
-            
-            String sqlScript = loadSqlScript();
-            
-            String[] queries = sqlScript.split(";");
-            
-            for (String query : queries) {
-                query = query.trim();
-                if (!query.isEmpty() && query.toUpperCase().startsWith("CREATE TABLE")) {
-                    try {
-                        stmt.execute(query);
-                    } catch (SQLException e) {
-                        System.out.println("Info: " + e.getMessage());
-                    }
-                }
-            }
-            
-            boolean hasData = false;
-            ResultSet rs = null;
-            try {
-                rs = stmt.executeQuery("SELECT COUNT(*) FROM livres");
-                if (rs.next() && rs.getInt(1) > 0) {
-                    hasData = true;
-                }
-            } catch (SQLException e) {
-                System.out.println("Info: Vérification des données - " + e.getMessage());
-            } finally {
-                if (rs != null) {
-                    try {
-                        rs.close();
-                    } catch (SQLException e) {
-                        System.err.println("Erreur lors de la fermeture du ResultSet: " + e.getMessage());
-                    }
-                }
-            }
-            
-            if (!hasData) {
-                for (String query : queries) {
-                    query = query.trim();
-                    if (!query.isEmpty() && query.toUpperCase().startsWith("INSERT")) {
-                        try {
-                            stmt.execute(query);
-                        } catch (SQLException e) {
-                            System.err.println("Erreur lors de l'insertion des données: " + e.getMessage());
-                        }
-                    }
-                }
-                System.out.println("Données d'exemple insérées avec succès.");
-            } else {
-                System.out.println("Des données existent déjà, aucune insertion nécessaire.");
-            }
-            
+        try (Connection conn = getConnection()) {
+            SchemaMigrator.migrate(conn);
             System.out.println("Base de données MySQL initialisée avec succès.");
         } catch (SQLException e) {
             System.err.println("Erreur lors de l'initialisation de la base de données MySQL: " + e.getMessage());
             e.printStackTrace();
-        } finally {
-            if (stmt != null) {
-                try {
-                    stmt.close();
-                } catch (SQLException e) {
-                    System.err.println("Erreur lors de la fermeture du Statement: " + e.getMessage());
-                }
-            }
-            if (conn != null) {
-                releaseConnection(conn);
-            }
-        }
-    }
-    
-    /**
-     * Charge le script SQL depuis les ressources.
-     * @return Le contenu du script SQL
-     */
-    private static String loadSqlScript() {
-        try (InputStream is = DatabaseConnection.class.getClassLoader().getResourceAsStream("database.sql")) {
-            if (is == null) {
-                throw new IOException("Le fichier database.sql n'a pas été trouvé dans les ressources.");
-            }
-            
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-                return reader.lines().collect(Collectors.joining("\n"));
-            }
-        } catch (IOException e) {
-            System.err.println("Erreur lors de la lecture du script SQL: " + e.getMessage());
-            e.printStackTrace();
-            return "";
         }
     }
 }
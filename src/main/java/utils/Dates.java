@@ -0,0 +1,107 @@
+package utils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+
+/**
+ * Classe utilitaire pour les dates stockées en jours depuis le 1970-01-01 (epoch day).
+ * Les modèles conservent les dates sous cette forme primitive ; la conversion en
+ * LocalDate ou en texte n'a lieu qu'à l'affichage et à la saisie.
+ */
+public final class Dates {
+
+    /**
+     * Valeur représentant l'absence de date (colonne NULL).
+     */
+    public static final long NONE = Long.MIN_VALUE;
+
+    /**
+     * Expression SQL convertissant une colonne DATE en jours depuis le 1970-01-01.
+     */
+    private static final String EPOCH_DAY_SQL = "DATEDIFF(%s, '1970-01-01')";
+
+    private Dates() {
+        // Classe utilitaire, pas d'instance
+    }
+
+    /**
+     * Retourne la date du jour.
+     *
+     * @return Le jour courant en epoch day
+     */
+    public static long today() {
+        return LocalDate.now().toEpochDay();
+    }
+
+    /**
+     * Convertit une LocalDate en epoch day.
+     *
+     * @param date La date, ou null
+     * @return Le jour correspondant, ou NONE si la date est null
+     */
+    public static long toEpochDay(LocalDate date) {
+        return date == null ? NONE : date.toEpochDay();
+    }
+
+    /**
+     * Convertit un epoch day en LocalDate.
+     *
+     * @param epochDay Le jour
+     * @return La date correspondante, ou null pour NONE
+     */
+    public static LocalDate toLocalDate(long epochDay) {
+        return epochDay == NONE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Formate un epoch day au format ISO (AAAA-MM-JJ).
+     *
+     * @param epochDay Le jour
+     * @return La date formatée, ou une chaîne vide pour NONE
+     */
+    public static String format(long epochDay) {
+        return epochDay == NONE ? "" : LocalDate.ofEpochDay(epochDay).toString();
+    }
+
+    /**
+     * Construit l'expression SQL lisant une colonne DATE en epoch day.
+     *
+     * @param column La colonne DATE
+     * @return L'expression SQL, à nommer par un alias dans la requête
+     */
+    public static String epochDaySql(String column) {
+        return String.format(EPOCH_DAY_SQL, column);
+    }
+
+    /**
+     * Lit une colonne sélectionnée avec {@link #epochDaySql(String)}.
+     *
+     * @param rs Le ResultSet positionné sur la ligne
+     * @param column Le nom de la colonne
+     * @return Le jour lu, ou NONE si la colonne est NULL
+     * @throws SQLException En cas d'erreur lors de la lecture
+     */
+    public static long getEpochDay(ResultSet rs, String column) throws SQLException {
+        long epochDay = rs.getLong(column);
+        return rs.wasNull() ? NONE : epochDay;
+    }
+
+    /**
+     * Positionne un paramètre DATE à partir d'un epoch day.
+     *
+     * @param pstmt La requête préparée
+     * @param index L'index du paramètre
+     * @param epochDay Le jour, ou NONE pour NULL
+     * @throws SQLException En cas d'erreur lors du positionnement
+     */
+    public static void setEpochDay(PreparedStatement pstmt, int index, long epochDay) throws SQLException {
+        if (epochDay == NONE) {
+            pstmt.setNull(index, Types.DATE);
+        } else {
+            pstmt.setObject(index, LocalDate.ofEpochDay(epochDay));
+        }
+    }
+}
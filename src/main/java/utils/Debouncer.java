@@ -0,0 +1,51 @@
+package utils;
+
+import javafx.animation.PauseTransition;
+import javafx.util.Duration;
+
+/**
+ * Regroupe des déclenchements rapprochés en un seul appel, sur le thread JavaFX :
+ * l'action n'est exécutée qu'une fois le délai écoulé sans nouveau déclenchement.
+ * Sert à lancer la recherche pendant la frappe sans une requête par touche.
+ */
+public class Debouncer {
+
+    private static final int DEFAULT_DELAY_MS = Math.max(0, Config.getInt("SEARCH_DEBOUNCE_MS", 300));
+
+    private final PauseTransition pause;
+
+    /**
+     * Constructeur avec le délai configuré par {@code SEARCH_DEBOUNCE_MS}.
+     *
+     * @param action L'action à exécuter
+     */
+    public Debouncer(Runnable action) {
+        this(Duration.millis(DEFAULT_DELAY_MS), action);
+    }
+
+    /**
+     * Constructeur.
+     *
+     * @param delay Le délai sans déclenchement avant l'exécution
+     * @param action L'action à exécuter
+     */
+    public Debouncer(Duration delay, Runnable action) {
+        this.pause = new PauseTransition(delay);
+        this.pause.setOnFinished(event -> action.run());
+    }
+
+    /**
+     * Déclenche l'action, ou repousse l'exécution déjà prévue.
+     * À appeler depuis le thread JavaFX.
+     */
+    public void trigger() {
+        pause.playFromStart();
+    }
+
+    /**
+     * Abandonne l'exécution prévue, par exemple quand l'action est lancée directement.
+     */
+    public void cancel() {
+        pause.stop();
+    }
+}
@@ -0,0 +1,248 @@
+package utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Cache d'entités par ID, borné en taille (LRU) et en durée de vie (TTL).
+ * Le cache conserve ses propres copies des entités et remet une copie à chaque lecture :
+ * les modèles JavaFX étant modifiables, un appelant ne peut pas altérer le contenu du cache.
+ * <p>
+ * Configuration dans le fichier .env, pour un cache nommé par exemple "livres" :
+ * CACHE_LIVRES_ENABLED, CACHE_LIVRES_SIZE et CACHE_LIVRES_TTL_MS.
+ *
+ * @param <T> Type des entités en cache
+ */
+public class EntityCache<T> implements EntityCacheMXBean {
+
+    private final String name;
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final UnaryOperator<T> copier;
+    private final LinkedHashMap<Integer, Entry<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Incrémenté à chaque invalidation : un chargement commencé avant ne doit pas être mis en cache
+    private final AtomicLong invalidationStamp = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Constructeur.
+     *
+     * @param name Le nom du cache, utilisé pour la configuration et JMX
+     * @param copier La fonction copiant une entité
+     */
+    public EntityCache(String name, UnaryOperator<T> copier) {
+        String prefix = "CACHE_" + name.toUpperCase() + "_";
+        this.name = name;
+        this.copier = copier;
+        this.maxSize = Math.max(0, Config.getInt(prefix + "SIZE", 1000));
+        this.enabled = Config.getBoolean(prefix + "ENABLED", true) && maxSize > 0;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, Config.getLong(prefix + "TTL_MS", 300000)));
+
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName("bibliotheque:type=EntityCache,name=" + name);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(this, objectName);
+            }
+        } catch (Exception e) {
+            System.err.println("Impossible d'enregistrer le cache " + name + " dans JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lit une entité en cache.
+     *
+     * @param id L'ID de l'entité
+     * @return Une copie de l'entité, ou null si elle est absente ou expirée
+     */
+    public T get(int id) {
+        if (!enabled) {
+            return null;
+        }
+        T value;
+        synchronized (entries) {
+            Entry<T> entry = entries.get(id);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (ttlNanos > 0 && System.nanoTime() - entry.loadedNanos > ttlNanos) {
+                entries.remove(id);
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            value = entry.value;
+        }
+        hits.increment();
+        return copier.apply(value);
+    }
+
+    /**
+     * Retourne le marqueur d'invalidation courant, à relever avant de charger une entité
+     * depuis la base puis à passer à {@link #put(int, Object, long)}.
+     *
+     * @return Le marqueur d'invalidation
+     */
+    public long stamp() {
+        return invalidationStamp.get();
+    }
+
+    /**
+     * Met une entité chargée en cache, sauf si une invalidation a eu lieu depuis le début du chargement.
+     *
+     * @param id L'ID de l'entité
+     * @param value L'entité chargée
+     * @param stamp Le marqueur relevé avant le chargement
+     */
+    public void put(int id, T value, long stamp) {
+        if (!enabled || value == null) {
+            return;
+        }
+        Entry<T> entry = new Entry<>(copier.apply(value), System.nanoTime());
+        synchronized (entries) {
+            if (invalidationStamp.get() != stamp) {
+                return;
+            }
+            entries.put(id, entry);
+            evictIfNeeded();
+        }
+    }
+
+    /**
+     * Retire une entité du cache.
+     *
+     * @param id L'ID de l'entité
+     */
+    public void invalidate(int id) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (entries) {
+            invalidationStamp.incrementAndGet();
+            entries.remove(id);
+        }
+        invalidations.increment();
+    }
+
+    @Override
+    public void invalidateAll() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (entries) {
+            invalidationStamp.incrementAndGet();
+            entries.clear();
+        }
+        invalidations.increment();
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Integer, Entry<T>>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Retourne le nom du cache.
+     *
+     * @return Le nom du cache
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public long getTtlMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(ttlNanos);
+    }
+
+    @Override
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    @Override
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+        expirations.reset();
+        invalidations.reset();
+    }
+
+    /**
+     * Entité en cache avec son instant de chargement.
+     */
+    private static final class Entry<T> {
+        private final T value;
+        private final long loadedNanos;
+
+        private Entry(T value, long loadedNanos) {
+            this.value = value;
+            this.loadedNanos = loadedNanos;
+        }
+    }
+}
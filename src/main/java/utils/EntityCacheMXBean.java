@@ -0,0 +1,38 @@
+package utils;
+
+/**
+ * Interface JMX exposant les statistiques d'un cache d'entités.
+ * Enregistrée sous le nom "bibliotheque:type=EntityCache,name=&lt;nom du cache&gt;".
+ */
+public interface EntityCacheMXBean {
+
+    boolean isEnabled();
+
+    int getMaxSize();
+
+    long getTtlMillis();
+
+    int getSize();
+
+    long getHits();
+
+    long getMisses();
+
+    long getEvictions();
+
+    long getExpirations();
+
+    long getInvalidations();
+
+    double getHitRatio();
+
+    /**
+     * Vide le cache.
+     */
+    void invalidateAll();
+
+    /**
+     * Remet à zéro les compteurs.
+     */
+    void resetStatistics();
+}
@@ -0,0 +1,30 @@
+package utils;
+
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+/**
+ * Cellule de tableau affichant une date stockée en jours depuis le 1970-01-01.
+ * Le texte n'est produit que pour les cellules visibles ; le tri de la colonne reste numérique.
+ *
+ * @param <S> Type des lignes du tableau
+ */
+public class EpochDayTableCell<S> extends TableCell<S, Number> {
+
+    /**
+     * Fabrique de cellules à passer à TableColumn.setCellFactory.
+     *
+     * @param <S> Type des lignes du tableau
+     * @return La fabrique de cellules
+     */
+    public static <S> Callback<TableColumn<S, Number>, TableCell<S, Number>> forTableColumn() {
+        return column -> new EpochDayTableCell<>();
+    }
+
+    @Override
+    protected void updateItem(Number epochDay, boolean empty) {
+        super.updateItem(epochDay, empty);
+        setText(empty || epochDay == null ? null : Dates.format(epochDay.longValue()));
+    }
+}
@@ -1,28 +1,81 @@
 package utils;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import javafx.application.Platform;
+
+import java.lang.ref.WeakReference;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
  * Système d'événements simple pour la communication entre contrôleurs.
+ * <p>
+ * Les abonnements et les publications peuvent avoir lieu depuis n'importe quel thread.
+ * Chaque abonné choisit où il est appelé ({@link Dispatch}) : sur le thread JavaFX (par défaut),
+ * sur un thread d'arrière-plan, ou directement sur le thread de publication.
+ * Un abonné peut être rattaché à un propriétaire (un contrôleur) référencé faiblement :
+ * l'abonnement disparaît de lui-même quand le propriétaire n'est plus utilisé.
+ * <p>
+ * Les modifications d'entités sont publiées sous forme typée ({@link ChangeEvent}) et
+ * regroupées : toutes celles publiées avant la prochaine impulsion JavaFX sont fusionnées
+ * dans un seul {@link ChangeSet}, remis une seule fois à chaque abonné.
  */
 public class EventSystem {
-    
+
+    /**
+     * Thread sur lequel un abonné est appelé.
+     */
+    public enum Dispatch {
+        /**
+         * Thread JavaFX, directement si l'événement y est publié (abonnés modifiant l'interface).
+         */
+        FX_THREAD,
+        /**
+         * Pool de threads d'arrière-plan, pour les traitements longs.
+         */
+        BACKGROUND,
+        /**
+         * Thread de publication.
+         */
+        INLINE
+    }
+
+    // 0 ou absent : un thread par processeur
+    private static final int BACKGROUND_THREADS = Math.max(2, Config.getInt("EVENT_DISPATCH_THREADS", 0) > 0
+            ? Config.getInt("EVENT_DISPATCH_THREADS", 0)
+            : Runtime.getRuntime().availableProcessors());
+
     // Singleton
     private static EventSystem instance;
-    
-    private final Map<String, List<Consumer<Object>>> eventListeners = new HashMap<>();
-    
+
+    private final Map<String, List<Subscription<Object>>> eventListeners = new ConcurrentHashMap<>();
+    private final List<Subscription<ChangeSet>> changeListeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService backgroundExecutor;
+
+    // Modifications en attente de la prochaine impulsion, protégées par le verrou pendingLock
+    private final Object pendingLock = new Object();
+    private ChangeSet pendingChanges;
+
     private EventSystem() {
-        // Constructeur privé pour le singleton
+        AtomicInteger threadCount = new AtomicInteger();
+        this.backgroundExecutor = Executors.newFixedThreadPool(BACKGROUND_THREADS, r -> {
+            Thread thread = new Thread(r, "event-dispatch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
-    
+
     /**
      * Obtient l'instance unique du système d'événements.
-     * 
+     *
      * @return L'instance du système d'événements
      */
     public static synchronized EventSystem getInstance() {
@@ -31,42 +84,263 @@ public class EventSystem {
         }
         return instance;
     }
-    
+
     /**
-     * S'abonne à un événement.
-     * 
+     * S'abonne à un événement. L'abonné est appelé sur le thread JavaFX.
+     *
      * @param eventName Nom de l'événement
      * @param listener Fonction à appeler lors de l'événement
      */
     public void subscribe(String eventName, Consumer<Object> listener) {
-        eventListeners.computeIfAbsent(eventName, k -> new ArrayList<>()).add(listener);
+        subscribe(eventName, listener, Dispatch.FX_THREAD);
+    }
+
+    /**
+     * S'abonne à un événement.
+     *
+     * @param eventName Nom de l'événement
+     * @param listener Fonction à appeler lors de l'événement
+     * @param dispatch Thread sur lequel appeler l'abonné
+     */
+    public void subscribe(String eventName, Consumer<Object> listener, Dispatch dispatch) {
+        listenersOf(eventName).add(Subscription.strong(listener, dispatch));
+    }
+
+    /**
+     * S'abonne à un événement pour le compte d'un propriétaire référencé faiblement.
+     * La fonction ne doit pas capturer le propriétaire, qui lui est passé à chaque appel.
+     *
+     * @param eventName Nom de l'événement
+     * @param owner Le propriétaire de l'abonnement (par exemple un contrôleur)
+     * @param listener Fonction à appeler avec le propriétaire et les données de l'événement
+     * @param dispatch Thread sur lequel appeler l'abonné
+     * @param <O> Type du propriétaire
+     */
+    public <O> void subscribe(String eventName, O owner, BiConsumer<O, Object> listener, Dispatch dispatch) {
+        listenersOf(eventName).add(Subscription.weak(owner, listener, dispatch));
     }
-    
+
     /**
-     * Déclenche un événement.
-     * 
+     * Déclenche un événement. Peut être appelée depuis n'importe quel thread.
+     *
      * @param eventName Nom de l'événement
      * @param data Données à passer aux abonnés (peut être null)
      */
     public void publish(String eventName, Object data) {
-        List<Consumer<Object>> listeners = eventListeners.get(eventName);
+        List<Subscription<Object>> listeners = eventListeners.get(eventName);
         if (listeners != null) {
-            for (Consumer<Object> listener : listeners) {
-                listener.accept(data);
-            }
+            deliver(listeners, data, eventName);
         }
     }
-    
+
     /**
      * Se désabonne d'un événement.
-     * 
+     *
      * @param eventName Nom de l'événement
      * @param listener Fonction à désabonner
      */
     public void unsubscribe(String eventName, Consumer<Object> listener) {
-        List<Consumer<Object>> listeners = eventListeners.get(eventName);
+        List<Subscription<Object>> listeners = eventListeners.get(eventName);
         if (listeners != null) {
-            listeners.remove(listener);
+            listeners.removeIf(subscription -> subscription.listener == listener);
+        }
+    }
+
+    /**
+     * Désabonne un propriétaire de tous les événements et des modifications d'entités.
+     *
+     * @param owner Le propriétaire des abonnements
+     */
+    public void unsubscribeAll(Object owner) {
+        for (List<Subscription<Object>> listeners : eventListeners.values()) {
+            listeners.removeIf(subscription -> subscription.isOwnedBy(owner));
+        }
+        changeListeners.removeIf(subscription -> subscription.isOwnedBy(owner));
+    }
+
+    /**
+     * S'abonne aux modifications d'entités.
+     * L'abonné est appelé sur le thread JavaFX avec les modifications fusionnées d'une impulsion.
+     *
+     * @param listener Fonction à appeler avec les modifications
+     */
+    public void subscribeChanges(Consumer<ChangeSet> listener) {
+        changeListeners.add(Subscription.strong(listener, Dispatch.FX_THREAD));
+    }
+
+    /**
+     * S'abonne aux modifications d'entités pour le compte d'un propriétaire référencé faiblement.
+     * L'abonné est appelé sur le thread JavaFX avec les modifications fusionnées d'une impulsion.
+     *
+     * @param owner Le propriétaire de l'abonnement (par exemple un contrôleur)
+     * @param listener Fonction à appeler avec le propriétaire et les modifications
+     * @param <O> Type du propriétaire
+     */
+    public <O> void subscribeChanges(O owner, BiConsumer<O, ChangeSet> listener) {
+        subscribeChanges(owner, listener, Dispatch.FX_THREAD);
+    }
+
+    /**
+     * S'abonne aux modifications d'entités pour le compte d'un propriétaire référencé faiblement.
+     *
+     * @param owner Le propriétaire de l'abonnement
+     * @param listener Fonction à appeler avec le propriétaire et les modifications
+     * @param dispatch Thread sur lequel appeler l'abonné
+     * @param <O> Type du propriétaire
+     */
+    public <O> void subscribeChanges(O owner, BiConsumer<O, ChangeSet> listener, Dispatch dispatch) {
+        changeListeners.add(Subscription.weak(owner, listener, dispatch));
+    }
+
+    /**
+     * Se désabonne des modifications d'entités.
+     *
+     * @param listener Fonction à désabonner
+     */
+    public void unsubscribeChanges(Consumer<ChangeSet> listener) {
+        changeListeners.removeIf(subscription -> subscription.listener == listener);
+    }
+
+    /**
+     * Publie la modification d'une entité. Peut être appelée depuis n'importe quel thread.
+     *
+     * @param entity Le type d'entité
+     * @param id L'ID de l'entité
+     * @param kind Le type de modification
+     */
+    public void publishChange(ChangeEvent.Entity entity, int id, ChangeEvent.Kind kind) {
+        publishChanges(List.of(new ChangeEvent(entity, id, kind)));
+    }
+
+    /**
+     * Publie plusieurs modifications d'entités. Peut être appelée depuis n'importe quel thread.
+     *
+     * @param events Les modifications
+     */
+    public void publishChanges(Collection<ChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        boolean schedule;
+        synchronized (pendingLock) {
+            schedule = pendingChanges == null;
+            if (schedule) {
+                pendingChanges = new ChangeSet();
+            }
+            for (ChangeEvent event : events) {
+                pendingChanges.add(event);
+            }
+        }
+        if (schedule) {
+            runOnFxThread(this::dispatchChanges);
+        }
+    }
+
+    /**
+     * Remet aux abonnés les modifications accumulées depuis la dernière impulsion.
+     */
+    private void dispatchChanges() {
+        ChangeSet changes;
+        synchronized (pendingLock) {
+            changes = pendingChanges;
+            pendingChanges = null;
+        }
+        if (changes != null && !changes.isEmpty()) {
+            deliver(changeListeners, changes, "modifications " + changes);
+        }
+    }
+
+    private List<Subscription<Object>> listenersOf(String eventName) {
+        return eventListeners.computeIfAbsent(eventName, k -> new CopyOnWriteArrayList<>());
+    }
+
+    /**
+     * Appelle chaque abonné sur son thread, en retirant ceux dont le propriétaire a disparu.
+     */
+    private <T> void deliver(List<Subscription<T>> listeners, T data, String description) {
+        for (Subscription<T> subscription : listeners) {
+            if (subscription.isCleared()) {
+                listeners.remove(subscription);
+                continue;
+            }
+            Runnable call = () -> {
+                try {
+                    subscription.accept(data);
+                } catch (RuntimeException e) {
+                    System.err.println("Erreur lors du traitement de l'événement " + description + ": " + e.getMessage());
+                }
+            };
+            switch (subscription.dispatch) {
+                case FX_THREAD:
+                    if (Platform.isFxApplicationThread()) {
+                        call.run();
+                    } else {
+                        runOnFxThread(call);
+                    }
+                    break;
+                case BACKGROUND:
+                    try {
+                        backgroundExecutor.execute(call);
+                    } catch (RejectedExecutionException e) {
+                        call.run();
+                    }
+                    break;
+                default:
+                    call.run();
+                    break;
+            }
+        }
+    }
+
+    private static void runOnFxThread(Runnable action) {
+        try {
+            Platform.runLater(action);
+        } catch (IllegalStateException e) {
+            // Toolkit JavaFX non démarré : appel immédiat
+            action.run();
+        }
+    }
+
+    /**
+     * Abonnement : la fonction appelée, son thread, et éventuellement son propriétaire référencé faiblement.
+     */
+    private static final class Subscription<T> {
+        private final Object listener;
+        private final Dispatch dispatch;
+        private final WeakReference<Object> owner;
+
+        private Subscription(Object listener, Dispatch dispatch, WeakReference<Object> owner) {
+            this.listener = listener;
+            this.dispatch = dispatch;
+            this.owner = owner;
+        }
+
+        static <T> Subscription<T> strong(Consumer<T> listener, Dispatch dispatch) {
+            return new Subscription<>(listener, dispatch, null);
+        }
+
+        static <O, T> Subscription<T> weak(O owner, BiConsumer<O, T> listener, Dispatch dispatch) {
+            return new Subscription<>(listener, dispatch, new WeakReference<>(owner));
+        }
+
+        boolean isCleared() {
+            return owner != null && owner.get() == null;
+        }
+
+        boolean isOwnedBy(Object candidate) {
+            return owner != null && owner.get() == candidate;
+        }
+
+        @SuppressWarnings("unchecked")
+        void accept(T data) {
+            if (owner == null) {
+                ((Consumer<T>) listener).accept(data);
+                return;
+            }
+            Object target = owner.get();
+            if (target != null) {
+                ((BiConsumer<Object, T>) listener).accept(target, data);
+            }
         }
     }
 }
@@ -0,0 +1,326 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire pour la recherche plein texte sur quelques champs d'une entité.
+ * <p>
+ * Chaque mot normalisé ({@link TextNormalizer}) renvoie à la liste triée des IDs qui le contiennent,
+ * avec pour chaque ID les champs où il apparaît. Une recherche exige que chaque mot saisi commence
+ * un mot de l'entité, la saisie pouvant donc être incomplète ; un mot saisi de moins de 3 caractères
+ * doit toutefois être complet, un préfixe aussi court désignant une trop grande partie de l'index.
+ * Le score d'une entité est la somme, sur les mots saisis, des poids des champs où le mot apparaît,
+ * un mot complet comptant double d'un simple préfixe. Les résultats sont distincts et triés par
+ * score décroissant puis par ID.
+ * <p>
+ * Les lectures sont concurrentes, les écritures exclusives.
+ */
+public class InvertedIndex implements TextIndex {
+
+    // Longueur minimale d'un mot saisi pour être cherché comme préfixe (en dessous : mot exact)
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final float PREFIX_FACTOR = 0.5f;
+
+    private final float[] fieldWeights;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    // Mots indexés de chaque entité, pour la retirer ou la remplacer
+    private final Map<Integer, String[]> documents = new HashMap<>();
+
+    /**
+     * Constructeur.
+     *
+     * @param fieldWeights Le poids de chaque champ, dans l'ordre des champs passés à {@link #put} (8 au plus)
+     */
+    public InvertedIndex(float... fieldWeights) {
+        if (fieldWeights.length == 0 || fieldWeights.length > Byte.SIZE) {
+            throw new IllegalArgumentException("Nombre de champs indexés invalide: " + fieldWeights.length);
+        }
+        this.fieldWeights = fieldWeights.clone();
+    }
+
+    /**
+     * Indexe une entité, en remplaçant sa version précédente.
+     *
+     * @param id L'ID de l'entité
+     * @param fields Les valeurs des champs (peuvent être null), dans l'ordre des poids
+     */
+    @Override
+    public void put(int id, String... fields) {
+        Map<String, Integer> masks = new HashMap<>();
+        for (int field = 0; field < fields.length && field < fieldWeights.length; field++) {
+            int bit = 1 << field;
+            for (String token : TextNormalizer.tokens(fields[field])) {
+                masks.merge(token, bit, (a, b) -> a | b);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            String[] documentTerms = new String[masks.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : masks.entrySet()) {
+                terms.computeIfAbsent(entry.getKey(), k -> new Postings()).add(id, entry.getValue());
+                documentTerms[i++] = entry.getKey();
+            }
+            documents.put(id, documentTerms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retire une entité de l'index.
+     *
+     * @param id L'ID de l'entité
+     */
+    @Override
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vide l'index.
+     */
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retourne le nombre d'entités indexées.
+     *
+     * @return Le nombre d'entités
+     */
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recherche les entités dont les mots commencent par chacun des mots saisis.
+     *
+     * @param query La saisie
+     * @param limit Le nombre maximal d'IDs renvoyés
+     * @return Les IDs trouvés, du plus pertinent au moins pertinent
+     */
+    @Override
+    public int[] search(String query, int limit) {
+        Set<String> tokens = new LinkedHashSet<>(TextNormalizer.tokens(query));
+        if (tokens.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            List<List<Match>> matches = new ArrayList<>();
+            for (String token : tokens) {
+                List<Match> tokenMatches = matchesOf(token);
+                if (tokenMatches.isEmpty()) {
+                    return new int[0];
+                }
+                matches.add(tokenMatches);
+            }
+            // Le mot le plus sélectif fournit les candidats, les autres les filtrent
+            matches.sort((a, b) -> Long.compare(postingCount(a), postingCount(b)));
+
+            Map<Integer, Float> scores = new HashMap<>();
+            for (Match match : matches.get(0)) {
+                Postings postings = match.postings;
+                for (int i = 0; i < postings.size; i++) {
+                    scores.merge(postings.ids[i], match.score(postings.masks[i]), Math::max);
+                }
+            }
+            for (int t = 1; t < matches.size() && !scores.isEmpty(); t++) {
+                filter(scores, matches.get(t));
+            }
+            return topIds(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Match> matchesOf(String token) {
+        List<Match> matches = new ArrayList<>();
+        Postings exact = terms.get(token);
+        if (exact != null) {
+            matches.add(new Match(exact, 1f));
+        }
+        if (token.length() < MIN_PREFIX_LENGTH) {
+            return matches;
+        }
+        for (Map.Entry<String, Postings> entry
+                : terms.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+            matches.add(new Match(entry.getValue(), PREFIX_FACTOR));
+        }
+        return matches;
+    }
+
+    /**
+     * Ne garde que les candidats contenant le mot saisi et ajoute à leur score son meilleur poids.
+     * Un préfixe courant peut couvrir des milliers de mots de l'index : leurs listes sont alors
+     * parcourues une fois plutôt que d'y chercher chaque candidat.
+     */
+    private static void filter(Map<Integer, Float> scores, List<Match> tokenMatches) {
+        Map<Integer, Float> best = new HashMap<>();
+        if ((long) scores.size() * tokenMatches.size() > postingCount(tokenMatches)) {
+            for (Match match : tokenMatches) {
+                Postings postings = match.postings;
+                for (int i = 0; i < postings.size; i++) {
+                    if (scores.containsKey(postings.ids[i])) {
+                        best.merge(postings.ids[i], match.score(postings.masks[i]), Math::max);
+                    }
+                }
+            }
+        } else {
+            for (int id : scores.keySet()) {
+                for (Match match : tokenMatches) {
+                    int index = match.postings.indexOf(id);
+                    if (index >= 0) {
+                        best.merge(id, match.score(match.postings.masks[index]), Math::max);
+                    }
+                }
+            }
+        }
+        scores.entrySet().removeIf(entry -> {
+            Float score = best.get(entry.getKey());
+            if (score == null || score == 0) {
+                return true;
+            }
+            entry.setValue(entry.getValue() + score);
+            return false;
+        });
+    }
+
+    private static long postingCount(List<Match> matches) {
+        long count = 0;
+        for (Match match : matches) {
+            count += match.postings.size;
+        }
+        return count;
+    }
+
+    private static int[] topIds(Map<Integer, Float> scores, int limit) {
+        // Tas des meilleurs résultats, le moins bon en tête
+        PriorityQueue<Map.Entry<Integer, Float>> best = new PriorityQueue<>(
+                (a, b) -> a.getValue().equals(b.getValue())
+                        ? Integer.compare(b.getKey(), a.getKey())
+                        : Float.compare(a.getValue(), b.getValue()));
+        for (Map.Entry<Integer, Float> entry : scores.entrySet()) {
+            best.add(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        int[] ids = new int[best.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = best.poll().getKey();
+        }
+        return ids;
+    }
+
+    private void removeLocked(int id) {
+        String[] documentTerms = documents.remove(id);
+        if (documentTerms == null) {
+            return;
+        }
+        for (String term : documentTerms) {
+            Postings postings = terms.get(term);
+            if (postings != null && postings.remove(id) && postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Mot de l'index correspondant à un mot saisi, exactement ou par préfixe.
+     */
+    private final class Match {
+        private final Postings postings;
+        private final float factor;
+
+        private Match(Postings postings, float factor) {
+            this.postings = postings;
+            this.factor = factor;
+        }
+
+        private float score(byte mask) {
+            float weight = 0;
+            for (int field = 0; field < fieldWeights.length; field++) {
+                if ((mask & (1 << field)) != 0) {
+                    weight += fieldWeights[field];
+                }
+            }
+            return weight * factor;
+        }
+    }
+
+    /**
+     * IDs triés des entités contenant un mot, avec les champs où il apparaît.
+     */
+    private static final class Postings {
+        private int[] ids = new int[2];
+        private byte[] masks = new byte[2];
+        private int size;
+
+        private int indexOf(int id) {
+            return Arrays.binarySearch(ids, 0, size, id);
+        }
+
+        private void add(int id, int mask) {
+            int index = indexOf(id);
+            if (index >= 0) {
+                masks[index] = (byte) mask;
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                masks = Arrays.copyOf(masks, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            System.arraycopy(masks, index, masks, index + 1, size - index);
+            ids[index] = id;
+            masks[index] = (byte) mask;
+            size++;
+        }
+
+        private boolean remove(int id) {
+            int index = indexOf(id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            System.arraycopy(masks, index + 1, masks, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
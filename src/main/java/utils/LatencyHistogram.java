@@ -0,0 +1,125 @@
+package utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de latences à seaux logarithmiques (puissances de deux, en microsecondes).
+ * L'enregistrement est sans verrou et peut être appelé depuis des chemins critiques.
+ * Les percentiles sont approchés par la borne supérieure du seau correspondant.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 40;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Constructeur.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Enregistre une durée.
+     *
+     * @param nanos La durée en nanosecondes
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        int index = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets[index].increment();
+        count.increment();
+        sumMicros.add(micros);
+        long currentMax = maxMicros.get();
+        while (micros > currentMax && !maxMicros.compareAndSet(currentMax, micros)) {
+            currentMax = maxMicros.get();
+        }
+    }
+
+    /**
+     * Retourne le nombre de durées enregistrées.
+     *
+     * @return Le nombre d'échantillons
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Retourne la durée moyenne enregistrée.
+     *
+     * @return La moyenne en microsecondes
+     */
+    public long getMeanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0 : sumMicros.sum() / n;
+    }
+
+    /**
+     * Retourne la durée maximale enregistrée.
+     *
+     * @return Le maximum en microsecondes
+     */
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * Calcule un percentile approché.
+     *
+     * @param percentile Le percentile souhaité, entre 0 et 100
+     * @return La borne supérieure du seau contenant le percentile, en microsecondes
+     */
+    public long getPercentileMicros(double percentile) {
+        long[] snapshot = getBucketCounts();
+        long total = 0;
+        for (long c : snapshot) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(i == 0 ? 0 : 1L << i, getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+
+    /**
+     * Retourne le nombre d'échantillons par seau.
+     * Le seau i contient les durées comprises entre 2^(i-1) et 2^i microsecondes.
+     *
+     * @return Une copie des compteurs de chaque seau
+     */
+    public long[] getBucketCounts() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets[i].sum();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Remet l'histogramme à zéro.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        sumMicros.reset();
+        maxMicros.set(0);
+    }
+}
@@ -0,0 +1,144 @@
+package utils;
+
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Mise à jour incrémentale d'une liste affichée à partir d'entités relues, par ID.
+ * Les éléments conservés restent les mêmes objets, mis à jour sur place : la sélection,
+ * la position de défilement et l'ordre de tri choisi dans la table sont préservés,
+ * et seules les lignes réellement modifiées sont redessinées.
+ */
+public final class ListPatcher {
+
+    private ListPatcher() {
+        // Classe utilitaire, pas d'instance
+    }
+
+    /**
+     * Aligne la liste sur un nouveau résultat complet : retire les éléments absents du résultat,
+     * met à jour sur place ceux qui y figurent et ajoute en fin de liste les nouveaux.
+     *
+     * @param target La liste affichée
+     * @param source Le nouveau résultat
+     * @param idOf La fonction donnant l'ID d'un élément
+     * @param updater La fonction recopiant un élément relu dans l'élément affiché (par exemple copyFrom)
+     * @param <T> Type des éléments
+     */
+    public static <T> void patch(ObservableList<T> target, Collection<T> source,
+                                 ToIntFunction<T> idOf, BiConsumer<T, T> updater) {
+        Map<Integer, T> fresh = new LinkedHashMap<>();
+        for (T item : source) {
+            fresh.putIfAbsent(idOf.applyAsInt(item), item);
+        }
+        if (target.isEmpty()) {
+            target.setAll(fresh.values());
+            return;
+        }
+
+        Set<Integer> removed = new HashSet<>();
+        for (T item : target) {
+            int id = idOf.applyAsInt(item);
+            if (!fresh.containsKey(id)) {
+                removed.add(id);
+            }
+        }
+        apply(target, fresh, removed, idOf, updater, true);
+    }
+
+    /**
+     * Aligne la liste sur un résultat ordonné, par exemple classé par pertinence : la liste
+     * prend l'ordre du résultat, mais les éléments déjà affichés restent les mêmes objets,
+     * mis à jour sur place.
+     *
+     * @param target La liste affichée
+     * @param source Le nouveau résultat, dans l'ordre d'affichage voulu
+     * @param idOf La fonction donnant l'ID d'un élément
+     * @param updater La fonction recopiant un élément relu dans l'élément affiché
+     * @param <T> Type des éléments
+     */
+    public static <T> void patchOrdered(ObservableList<T> target, Collection<T> source,
+                                        ToIntFunction<T> idOf, BiConsumer<T, T> updater) {
+        Map<Integer, T> current = new HashMap<>();
+        for (T item : target) {
+            current.putIfAbsent(idOf.applyAsInt(item), item);
+        }
+
+        Map<Integer, T> ordered = new LinkedHashMap<>();
+        for (T item : source) {
+            int id = idOf.applyAsInt(item);
+            if (ordered.containsKey(id)) {
+                continue;
+            }
+            T existing = current.get(id);
+            if (existing != null && existing != item) {
+                updater.accept(existing, item);
+                ordered.put(id, existing);
+            } else {
+                ordered.put(id, item);
+            }
+        }
+        target.setAll(ordered.values());
+    }
+
+    /**
+     * Applique des modifications partielles : met à jour sur place les éléments relus,
+     * retire les éléments supprimés et ajoute éventuellement en fin de liste les éléments nouveaux.
+     *
+     * @param target La liste affichée
+     * @param fresh Les entités relues depuis la base, par ID
+     * @param deletedIds Les IDs des entités supprimées
+     * @param idOf La fonction donnant l'ID d'un élément
+     * @param updater La fonction recopiant un élément relu dans l'élément affiché
+     * @param appendMissing true pour ajouter les entités relues absentes de la liste
+     * @param <T> Type des éléments
+     */
+    public static <T> void apply(ObservableList<T> target, Map<Integer, T> fresh, Set<Integer> deletedIds,
+                                 ToIntFunction<T> idOf, BiConsumer<T, T> updater, boolean appendMissing) {
+        if (fresh.isEmpty() && deletedIds.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, T> remaining = new LinkedHashMap<>(fresh);
+        List<Integer> removedIndexes = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+
+        for (int i = 0; i < target.size(); i++) {
+            T item = target.get(i);
+            int id = idOf.applyAsInt(item);
+            if (deletedIds.contains(id) || !seen.add(id)) {
+                // Élément supprimé, ou doublon d'un élément déjà présent
+                removedIndexes.add(i);
+                continue;
+            }
+            T replacement = remaining.remove(id);
+            if (replacement != null && replacement != item) {
+                updater.accept(item, replacement);
+            }
+        }
+
+        // Retrait par plages contiguës, de la fin vers le début pour garder les index valides
+        for (int end = removedIndexes.size() - 1; end >= 0; ) {
+            int start = end;
+            while (start > 0 && removedIndexes.get(start - 1) == removedIndexes.get(start) - 1) {
+                start--;
+            }
+            target.remove((int) removedIndexes.get(start), removedIndexes.get(end) + 1);
+            end = start - 1;
+        }
+
+        if (appendMissing && !remaining.isEmpty()) {
+            target.addAll(remaining.values());
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package utils;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Liste observable paginée pour les tables volumineuses : seuls les IDs de toutes les lignes,
+ * dans l'ordre de tri, sont gardés en mémoire (4 octets par ligne) ; les éléments sont chargés
+ * par pages à mesure que la table les affiche.
+ * <p>
+ * Une ligne dont la page n'est pas encore chargée est représentée par un élément provisoire
+ * portant seulement son ID ; la page et ses voisines sont alors chargées en arrière-plan, puis
+ * signalées à la table comme remplacées. Au-delà de {@code UI_MAX_PAGES} pages, les moins
+ * récemment affichées sont oubliées. Le tri est fait par la base ({@link #sort}).
+ * <p>
+ * Les rechargements demandés pendant un rechargement en cours sont regroupés en un seul,
+ * lancé à sa fin. Triée par ID, la liste peut aussi intégrer des insertions et des suppressions
+ * sans rien recharger ({@link #splice}).
+ * <p>
+ * À utiliser depuis le thread JavaFX uniquement.
+ *
+ * @param <T> Type des éléments
+ */
+public class PagedObservableList<T> extends ObservableListBase<T> {
+
+    /**
+     * Source des données, appelée en arrière-plan.
+     *
+     * @param <T> Type des éléments
+     */
+    public interface DataSource<T> {
+
+        /**
+         * Charge les IDs de toutes les lignes dans l'ordre de tri.
+         *
+         * @param sortColumn La colonne de tri, ou null pour l'ordre par défaut
+         * @param descending true pour un tri décroissant
+         * @return Les IDs triés
+         * @throws Exception En cas d'erreur lors du chargement
+         */
+        int[] loadIds(String sortColumn, boolean descending) throws Exception;
+
+        /**
+         * Charge les éléments d'une page.
+         *
+         * @param ids Les IDs des éléments de la page
+         * @return Une map ID → élément, sans entrée pour les IDs disparus
+         * @throws Exception En cas d'erreur lors du chargement
+         */
+        Map<Integer, T> loadPage(List<Integer> ids) throws Exception;
+    }
+
+    private static final int PAGE_SIZE = Math.max(10, Config.getInt("UI_PAGE_SIZE", 100));
+    private static final int MAX_PAGES = Math.max(3, Config.getInt("UI_MAX_PAGES", 20));
+
+    // Pages chargées autour de la page affichée
+    private static final int PREFETCH_PAGES = 1;
+
+    private final DataSource<T> source;
+    private final IntFunction<T> placeholder;
+    private final Consumer<Throwable> onFailure;
+    private final TaskRunner runner = new TaskRunner(null);
+
+    private int[] ids = new int[0];
+    private String sortColumn;
+    private boolean descending;
+
+    // Incrémentée à chaque remplacement des IDs : les pages chargées avant sont ignorées
+    private long generation;
+
+    private boolean reloading;
+    private boolean reloadPending;
+
+    // Pages chargées, de la moins à la plus récemment affichée
+    private final LinkedHashMap<Integer, List<T>> pages = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Éléments provisoires des pages en cours de chargement
+    private final Map<Integer, List<T>> loadingPages = new HashMap<>();
+
+    /**
+     * Constructeur.
+     *
+     * @param source La source des données
+     * @param placeholder La fonction créant l'élément provisoire d'un ID
+     * @param onFailure Fonction appelée sur le thread JavaFX en cas d'erreur de chargement
+     */
+    public PagedObservableList(DataSource<T> source, IntFunction<T> placeholder, Consumer<Throwable> onFailure) {
+        this.source = source;
+        this.placeholder = placeholder;
+        this.onFailure = onFailure;
+    }
+
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, ids.length);
+        int page = index / PAGE_SIZE;
+        List<T> items = pages.get(page);
+        if (items == null) {
+            items = requestPage(page);
+        }
+        for (int neighbour = page - PREFETCH_PAGES; neighbour <= page + PREFETCH_PAGES; neighbour++) {
+            if (neighbour != page && !pages.containsKey(neighbour)) {
+                requestPage(neighbour);
+            }
+        }
+        return items.get(index - page * PAGE_SIZE);
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Trie la liste par la base et la recharge, si le tri demandé diffère du tri courant.
+     *
+     * @param sortColumn La colonne de tri, ou null pour l'ordre par défaut
+     * @param descending true pour un tri décroissant
+     */
+    public void sort(String sortColumn, boolean descending) {
+        if (Objects.equals(this.sortColumn, sortColumn) && this.descending == descending) {
+            return;
+        }
+        this.sortColumn = sortColumn;
+        this.descending = descending;
+        // Le rechargement en cours, dans l'ancien ordre, est remplacé
+        loadIds();
+    }
+
+    /**
+     * Retourne la colonne de tri courante.
+     *
+     * @return La colonne de tri, ou null pour l'ordre par défaut
+     */
+    public String getSortColumn() {
+        return sortColumn;
+    }
+
+    /**
+     * Recharge les IDs dans l'ordre de tri courant, par exemple après une insertion ou une suppression.
+     * Les éléments restent affichés jusqu'à l'arrivée des nouveaux IDs. Si un rechargement est déjà
+     * en cours, un seul nouveau rechargement est lancé à sa fin, quel que soit le nombre de demandes.
+     */
+    public void reload() {
+        if (reloading) {
+            reloadPending = true;
+            return;
+        }
+        loadIds();
+    }
+
+    /**
+     * Intègre des lignes insérées et supprimées sans recharger les IDs, en signalant à la table
+     * chaque ligne ajoutée ou retirée : la sélection et les pages déjà chargées sont conservées.
+     * Réservé à une liste triée par ID (dans un sens ou dans l'autre) ; pendant un rechargement,
+     * dont le résultat pourrait précéder ces modifications, un nouveau rechargement est demandé à la place.
+     *
+     * @param inserted Les éléments insérés, par ID
+     * @param deletedIds Les IDs des lignes supprimées
+     */
+    public void splice(Map<Integer, T> inserted, Collection<Integer> deletedIds) {
+        if (inserted.isEmpty() && deletedIds.isEmpty()) {
+            return;
+        }
+        if (reloading) {
+            reload();
+            return;
+        }
+
+        // Éléments connus, pour reconstituer les pages après le décalage des lignes
+        Map<Integer, T> known = new HashMap<>(inserted);
+        pages.forEach((page, items) -> {
+            for (int i = 0; i < items.size(); i++) {
+                known.putIfAbsent(ids[page * PAGE_SIZE + i], items.get(i));
+            }
+        });
+        Set<Integer> loadedPages = new HashSet<>(pages.keySet());
+
+        Set<Integer> deleted = new HashSet<>();
+        for (int id : deletedIds) {
+            if (indexOf(id) >= 0) {
+                deleted.add(id);
+            }
+        }
+        int[] added = inserted.keySet().stream()
+                .filter(id -> indexOf(id) < 0 && !deleted.contains(id))
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .toArray();
+        if (descending) {
+            for (int i = 0, j = added.length - 1; i < j; i++, j--) {
+                int tmp = added[i];
+                added[i] = added[j];
+                added[j] = tmp;
+            }
+        }
+        if (added.length == 0 && deleted.isEmpty()) {
+            return;
+        }
+
+        // Fusion des deux listes triées ; les modifications sont signalées dans l'ordre des positions
+        int[] newIds = new int[ids.length - deleted.size() + added.length];
+        beginChange();
+        int i = 0;
+        int j = 0;
+        int position = 0;
+        while (i < ids.length || j < added.length) {
+            if (j < added.length && (i == ids.length || compare(added[j], ids[i]) < 0)) {
+                newIds[position] = added[j++];
+                nextAdd(position, position + 1);
+                position++;
+            } else {
+                int id = ids[i++];
+                if (deleted.contains(id)) {
+                    T removed = known.get(id);
+                    nextRemove(position, removed != null ? removed : placeholder.apply(id));
+                } else {
+                    newIds[position++] = id;
+                }
+            }
+        }
+
+        generation++;
+        ids = newIds;
+        pages.clear();
+        loadingPages.clear();
+        for (int loaded : loadedPages) {
+            for (int page = loaded - 1; page <= loaded + 1; page++) {
+                restorePage(page, known);
+            }
+        }
+        Iterator<Integer> eldest = pages.keySet().iterator();
+        while (pages.size() > MAX_PAGES) {
+            eldest.next();
+            eldest.remove();
+        }
+        endChange();
+    }
+
+    /**
+     * Met à jour sur place les éléments chargés figurant parmi les entités relues.
+     * L'ordre n'est pas recalculé : appeler {@link #reload()} si la colonne de tri a pu changer.
+     *
+     * @param fresh Les entités relues, par ID
+     * @param idOf La fonction donnant l'ID d'un élément
+     * @param updater La fonction recopiant une entité relue dans l'élément affiché
+     */
+    public void update(Map<Integer, T> fresh, ToIntFunction<T> idOf, BiConsumer<T, T> updater) {
+        if (fresh.isEmpty()) {
+            return;
+        }
+        for (T item : getLoaded()) {
+            T replacement = fresh.get(idOf.applyAsInt(item));
+            if (replacement != null && replacement != item) {
+                updater.accept(item, replacement);
+            }
+        }
+    }
+
+    /**
+     * Retourne les éléments actuellement chargés.
+     *
+     * @return Une copie des éléments des pages chargées
+     */
+    public List<T> getLoaded() {
+        List<T> loaded = new ArrayList<>();
+        for (List<T> items : pages.values()) {
+            loaded.addAll(items);
+        }
+        return loaded;
+    }
+
+    private void loadIds() {
+        reloading = true;
+        reloadPending = false;
+        String column = sortColumn;
+        boolean desc = descending;
+        runner.run(() -> source.loadIds(column, desc), newIds -> {
+            reloading = false;
+            replaceIds(newIds);
+            if (reloadPending) {
+                loadIds();
+            }
+        }, e -> {
+            reloading = false;
+            onFailure.accept(e);
+        });
+    }
+
+    private int compare(int a, int b) {
+        return descending ? Integer.compare(b, a) : Integer.compare(a, b);
+    }
+
+    /**
+     * Position d'un ID dans une liste triée par ID, ou -1.
+     */
+    private int indexOf(int id) {
+        int low = 0;
+        int high = ids.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(ids[mid], id);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reconstitue une page dont tous les éléments sont connus, sans la recharger.
+     */
+    private void restorePage(int page, Map<Integer, T> known) {
+        int from = page * PAGE_SIZE;
+        if (page < 0 || from >= ids.length || pages.containsKey(page)) {
+            return;
+        }
+        int to = Math.min(ids.length, from + PAGE_SIZE);
+        List<T> items = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            T item = known.get(ids[i]);
+            if (item == null) {
+                return;
+            }
+            items.add(item);
+        }
+        pages.put(page, items);
+    }
+
+    private List<T> requestPage(int page) {
+        List<T> items = loadingPages.get(page);
+        if (items != null || page < 0 || page * PAGE_SIZE >= ids.length) {
+            return items;
+        }
+
+        int from = page * PAGE_SIZE;
+        int to = Math.min(ids.length, from + PAGE_SIZE);
+        List<Integer> pageIds = new ArrayList<>(to - from);
+        List<T> placeholders = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            pageIds.add(ids[i]);
+            placeholders.add(placeholder.apply(ids[i]));
+        }
+        loadingPages.put(page, placeholders);
+
+        // En cas d'erreur, la page garde ses éléments provisoires jusqu'au prochain rechargement
+        long requestGeneration = generation;
+        runner.submit(() -> source.loadPage(pageIds),
+                loaded -> pageLoaded(page, requestGeneration, pageIds, loaded),
+                onFailure);
+        return placeholders;
+    }
+
+    private void pageLoaded(int page, long requestGeneration, List<Integer> pageIds, Map<Integer, T> loaded) {
+        if (requestGeneration != generation) {
+            return;
+        }
+        List<T> placeholders = loadingPages.remove(page);
+
+        // Un élément disparu entre-temps garde son élément provisoire jusqu'au prochain rechargement
+        List<T> items = new ArrayList<>(pageIds.size());
+        for (int i = 0; i < pageIds.size(); i++) {
+            T item = loaded.get(pageIds.get(i));
+            items.add(item != null ? item : placeholders.get(i));
+        }
+        pages.put(page, items);
+
+        Iterator<Integer> eldest = pages.keySet().iterator();
+        while (pages.size() > MAX_PAGES) {
+            eldest.next();
+            eldest.remove();
+        }
+
+        int from = page * PAGE_SIZE;
+        beginChange();
+        nextReplace(from, from + items.size(), placeholders);
+        endChange();
+    }
+
+    private void replaceIds(int[] newIds) {
+        int oldSize = ids.length;
+        generation++;
+        ids = newIds;
+        pages.clear();
+        loadingPages.clear();
+
+        beginChange();
+        nextReplace(0, newIds.length, Collections.nCopies(oldSize, null));
+        endChange();
+    }
+}
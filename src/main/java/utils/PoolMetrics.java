@@ -0,0 +1,341 @@
+package utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Métriques du pool de connexions : temps d'attente, durée des emprunts,
+ * saturation et détection des connexions non rendues (fuites).
+ * Consultables directement via {@link #getInstance()} ou par JMX.
+ */
+public class PoolMetrics implements PoolMetricsMXBean {
+
+    private static final String OBJECT_NAME = "bibliotheque:type=ConnectionPool";
+
+    // Singleton
+    private static final PoolMetrics instance = new PoolMetrics();
+
+    private final LatencyHistogram acquireTimes = new LatencyHistogram();
+    private final LatencyHistogram leaseTimes = new LatencyHistogram();
+    private final LongAdder exhausted = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LongAdder statementCacheEvictions = new LongAdder();
+    private final Map<String, LongAdder> leaksByCallSite = new ConcurrentHashMap<>();
+
+    private final long leakThresholdNanos;
+    private final Set<LeaseRecord> activeLeases = ConcurrentHashMap.newKeySet();
+
+    private PoolMetrics() {
+        long thresholdMillis = Config.getLong("DB_POOL_LEAK_THRESHOLD_MS", 0);
+        this.leakThresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, thresholdMillis));
+
+        if (leakThresholdNanos > 0) {
+            long period = Math.max(1000, thresholdMillis / 2);
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "pool-leak-detector");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(this::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (Exception e) {
+            System.err.println("Impossible d'enregistrer les métriques du pool dans JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Obtient l'instance unique des métriques du pool.
+     *
+     * @return L'instance des métriques
+     */
+    public static PoolMetrics getInstance() {
+        return instance;
+    }
+
+    /**
+     * Enregistre le temps d'attente d'une connexion obtenue.
+     *
+     * @param waitNanos Le temps d'attente en nanosecondes
+     */
+    void recordAcquire(long waitNanos) {
+        acquireTimes.record(waitNanos);
+    }
+
+    /**
+     * Enregistre un échec d'obtention de connexion pour cause de saturation.
+     */
+    void recordExhausted() {
+        exhausted.increment();
+    }
+
+    /**
+     * Enregistre la création d'une connexion physique.
+     */
+    void recordConnectionCreated() {
+        created.increment();
+    }
+
+    /**
+     * Enregistre une instruction préparée servie depuis le cache.
+     */
+    void recordStatementCacheHit() {
+        statementCacheHits.increment();
+    }
+
+    /**
+     * Enregistre une instruction préparée absente du cache.
+     */
+    void recordStatementCacheMiss() {
+        statementCacheMisses.increment();
+    }
+
+    /**
+     * Enregistre l'éviction d'une instruction préparée du cache.
+     */
+    void recordStatementCacheEviction() {
+        statementCacheEvictions.increment();
+    }
+
+    /**
+     * Signale le début d'un emprunt de connexion.
+     * Le site d'appel n'est capturé que si la détection des fuites est activée.
+     *
+     * @return L'enregistrement de l'emprunt, à passer à {@link #leaseEnded(LeaseRecord)}
+     */
+    LeaseRecord leaseStarted() {
+        if (leakThresholdNanos == 0) {
+            return new LeaseRecord(System.nanoTime(), null);
+        }
+        LeaseRecord record = new LeaseRecord(System.nanoTime(), findCallSite());
+        activeLeases.add(record);
+        return record;
+    }
+
+    /**
+     * Signale la fin d'un emprunt de connexion.
+     *
+     * @param record L'enregistrement obtenu au début de l'emprunt
+     */
+    void leaseEnded(LeaseRecord record) {
+        long heldNanos = System.nanoTime() - record.acquiredNanos;
+        leaseTimes.record(heldNanos);
+        if (record.callSite != null) {
+            activeLeases.remove(record);
+            if (record.reported) {
+                System.err.println("Connexion signalée comme fuite rendue après "
+                        + TimeUnit.NANOSECONDS.toMillis(heldNanos) + " ms (" + record.callSite + ").");
+            }
+        }
+    }
+
+    /**
+     * Parcourt les emprunts en cours et signale ceux qui dépassent le seuil.
+     */
+    private void detectLeaks() {
+        long now = System.nanoTime();
+        for (LeaseRecord record : activeLeases) {
+            if (!record.reported && now - record.acquiredNanos > leakThresholdNanos) {
+                record.reported = true;
+                leaks.increment();
+                leaksByCallSite.computeIfAbsent(record.callSite, k -> new LongAdder()).increment();
+                System.err.println("Fuite de connexion probable: connexion détenue depuis plus de "
+                        + TimeUnit.NANOSECONDS.toMillis(leakThresholdNanos) + " ms par " + record.callSite);
+            }
+        }
+    }
+
+    /**
+     * Détermine le premier appelant extérieur au pool.
+     *
+     * @return Le site d'appel sous la forme classe.méthode:ligne
+     */
+    private static String findCallSite() {
+        Optional<StackWalker.StackFrame> frame = StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> !f.getClassName().startsWith("utils.")
+                        && !f.getClassName().startsWith("java.")
+                        && !f.getClassName().startsWith("jdk.")
+                        && !f.getClassName().startsWith("com.sun.proxy."))
+                .findFirst());
+        return frame.map(f -> f.getClassName() + "." + f.getMethodName() + ":" + f.getLineNumber())
+                .orElse("inconnu");
+    }
+
+    /**
+     * Retourne l'histogramme des temps d'attente d'une connexion.
+     *
+     * @return L'histogramme des temps d'attente
+     */
+    public LatencyHistogram getAcquireTimes() {
+        return acquireTimes;
+    }
+
+    /**
+     * Retourne l'histogramme des durées d'emprunt des connexions.
+     *
+     * @return L'histogramme des durées d'emprunt
+     */
+    public LatencyHistogram getLeaseTimes() {
+        return leaseTimes;
+    }
+
+    @Override
+    public int getMaxConnections() {
+        return DatabaseConnection.getMaxConnections();
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return DatabaseConnection.getActiveConnections();
+    }
+
+    @Override
+    public int getIdleConnections() {
+        return DatabaseConnection.getIdleConnections();
+    }
+
+    @Override
+    public int getPendingAcquires() {
+        return DatabaseConnection.getPendingAcquires();
+    }
+
+    @Override
+    public long getAcquireCount() {
+        return acquireTimes.getCount();
+    }
+
+    @Override
+    public long getExhaustedCount() {
+        return exhausted.sum();
+    }
+
+    @Override
+    public long getConnectionsCreated() {
+        return created.sum();
+    }
+
+    @Override
+    public long getAcquireTimeMeanMicros() {
+        return acquireTimes.getMeanMicros();
+    }
+
+    @Override
+    public long getAcquireTimeP50Micros() {
+        return acquireTimes.getPercentileMicros(50);
+    }
+
+    @Override
+    public long getAcquireTimeP99Micros() {
+        return acquireTimes.getPercentileMicros(99);
+    }
+
+    @Override
+    public long getAcquireTimeMaxMicros() {
+        return acquireTimes.getMaxMicros();
+    }
+
+    @Override
+    public long getLeaseTimeMeanMicros() {
+        return leaseTimes.getMeanMicros();
+    }
+
+    @Override
+    public long getLeaseTimeP50Micros() {
+        return leaseTimes.getPercentileMicros(50);
+    }
+
+    @Override
+    public long getLeaseTimeP99Micros() {
+        return leaseTimes.getPercentileMicros(99);
+    }
+
+    @Override
+    public long getLeaseTimeMaxMicros() {
+        return leaseTimes.getMaxMicros();
+    }
+
+    @Override
+    public long getLeakThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(leakThresholdNanos);
+    }
+
+    @Override
+    public long getLeakCount() {
+        return leaks.sum();
+    }
+
+    @Override
+    public Map<String, Long> getLeaksByCallSite() {
+        Map<String, Long> result = new TreeMap<>();
+        leaksByCallSite.forEach((site, count) -> result.put(site, count.sum()));
+        return result;
+    }
+
+    @Override
+    public long getStatementCacheHits() {
+        return statementCacheHits.sum();
+    }
+
+    @Override
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.sum();
+    }
+
+    @Override
+    public long getStatementCacheEvictions() {
+        return statementCacheEvictions.sum();
+    }
+
+    @Override
+    public double getStatementCacheHitRatio() {
+        long hits = statementCacheHits.sum();
+        long total = hits + statementCacheMisses.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public void reset() {
+        acquireTimes.reset();
+        leaseTimes.reset();
+        exhausted.reset();
+        created.reset();
+        leaks.reset();
+        leaksByCallSite.clear();
+        statementCacheHits.reset();
+        statementCacheMisses.reset();
+        statementCacheEvictions.reset();
+    }
+
+    /**
+     * Enregistrement d'un emprunt de connexion en cours.
+     */
+    static final class LeaseRecord {
+        private final long acquiredNanos;
+        private final String callSite;
+        private volatile boolean reported;
+
+        private LeaseRecord(long acquiredNanos, String callSite) {
+            this.acquiredNanos = acquiredNanos;
+            this.callSite = callSite;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package utils;
+
+import java.util.Map;
+
+/**
+ * Interface JMX exposant les métriques du pool de connexions.
+ * Enregistrée sous le nom "bibliotheque:type=ConnectionPool".
+ */
+public interface PoolMetricsMXBean {
+
+    int getMaxConnections();
+
+    int getActiveConnections();
+
+    int getIdleConnections();
+
+    int getPendingAcquires();
+
+    long getAcquireCount();
+
+    long getExhaustedCount();
+
+    long getConnectionsCreated();
+
+    long getAcquireTimeMeanMicros();
+
+    long getAcquireTimeP50Micros();
+
+    long getAcquireTimeP99Micros();
+
+    long getAcquireTimeMaxMicros();
+
+    long getLeaseTimeMeanMicros();
+
+    long getLeaseTimeP50Micros();
+
+    long getLeaseTimeP99Micros();
+
+    long getLeaseTimeMaxMicros();
+
+    long getLeakThresholdMillis();
+
+    long getLeakCount();
+
+    Map<String, Long> getLeaksByCallSite();
+
+    long getStatementCacheHits();
+
+    long getStatementCacheMisses();
+
+    long getStatementCacheEvictions();
+
+    double getStatementCacheHitRatio();
+
+    /**
+     * Remet à zéro les histogrammes et compteurs.
+     */
+    void reset();
+}
@@ -0,0 +1,192 @@
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connexion physique gérée par le pool de {@link DatabaseConnection}.
+ * Chaque emprunt du pool produit un proxy dont la méthode close() rend la connexion
+ * au pool au lieu de fermer la connexion physique.
+ * Les instructions préparées sont conservées d'un emprunt à l'autre dans un cache LRU.
+ */
+final class PooledConnection {
+
+    private final Connection physical;
+    private final StatementCache statementCache;
+    private volatile long lastReleasedNanos;
+    private volatile boolean broken;
+
+    /**
+     * Constructeur.
+     *
+     * @param physical La connexion physique à la base de données
+     * @param statementCacheSize Taille du cache d'instructions préparées (0 pour le désactiver)
+     */
+    PooledConnection(Connection physical, int statementCacheSize) {
+        this.physical = physical;
+        this.statementCache = statementCacheSize > 0 ? new StatementCache(physical, statementCacheSize) : null;
+        this.lastReleasedNanos = System.nanoTime();
+    }
+
+    /**
+     * Crée un nouveau proxy de connexion pour un emprunt du pool.
+     *
+     * @return Le proxy remis à l'appelant
+     */
+    Connection lease() {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new Lease());
+    }
+
+    /**
+     * Indique si la connexion est inactive depuis plus longtemps que le délai donné.
+     *
+     * @param delayNanos Le délai en nanosecondes
+     * @return true si la connexion est restée inactive plus longtemps que le délai
+     */
+    boolean idleLongerThan(long delayNanos) {
+        return System.nanoTime() - lastReleasedNanos > delayNanos;
+    }
+
+    /**
+     * Vérifie que la connexion physique est encore utilisable.
+     *
+     * @param validate true pour effectuer un aller-retour de validation avec le serveur
+     * @return true si la connexion peut être réutilisée
+     */
+    boolean isUsable(boolean validate) {
+        if (broken) {
+            return false;
+        }
+        try {
+            return validate ? physical.isValid(2) : !physical.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Ferme la connexion physique.
+     */
+    void closePhysical() {
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la fermeture d'une connexion du pool: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Remet la connexion dans un état propre avant son retour au pool.
+     *
+     * @return true si la connexion peut être réutilisée
+     */
+    private boolean reset() {
+        if (broken) {
+            return false;
+        }
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            physical.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Connexion écartée du pool: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Gestionnaire d'appels d'un proxy de connexion.
+     * Un proxy fermé refuse tout appel, même si la connexion physique a été réattribuée.
+     */
+    private final class Lease implements InvocationHandler {
+
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private final PoolMetrics.LeaseRecord record = PoolMetrics.getInstance().leaseStarted();
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        lastReleasedNanos = System.nanoTime();
+                        PoolMetrics.getInstance().leaseEnded(record);
+                        if (statementCache != null) {
+                            statementCache.releaseAll();
+                        }
+                        DatabaseConnection.release(PooledConnection.this, reset());
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + (closed.get() ? ", rendue" : "") + "]";
+                default:
+                    break;
+            }
+
+            if (closed.get()) {
+                throw new SQLException("La connexion a déjà été rendue au pool.");
+            }
+
+            if (statementCache != null && "prepareStatement".equals(method.getName())) {
+                Class<?>[] types = method.getParameterTypes();
+                if (types.length == 1) {
+                    return statementCache.prepare((String) args[0], Statement.NO_GENERATED_KEYS, (Connection) proxy);
+                }
+                if (types.length == 2 && types[1] == int.class) {
+                    return statementCache.prepare((String) args[0], (Integer) args[1], (Connection) proxy);
+                }
+            }
+
+            try {
+                Object result = method.invoke(physical, args);
+                if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                    // Instruction hors cache : ses exécutions restent annulables
+                    return track((Statement) result, method.getReturnType(), (Connection) proxy);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException) {
+                    String state = ((SQLException) cause).getSQLState();
+                    if (state != null && state.startsWith("08")) {
+                        broken = true;
+                    }
+                }
+                throw cause;
+            }
+        }
+    }
+
+    /**
+     * Enveloppe une instruction créée directement sur la connexion physique.
+     *
+     * @param statement L'instruction physique
+     * @param type Le type de retour de la méthode qui l'a créée
+     * @param connection Le proxy de connexion qui l'a créée
+     * @return L'instruction enveloppée
+     */
+    @SuppressWarnings("unchecked")
+    private static <S extends Statement> S track(Statement statement, Class<?> type, Connection connection) {
+        return QueryCancellation.track((S) statement, (Class<S>) type, connection);
+    }
+}
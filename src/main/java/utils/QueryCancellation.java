@@ -0,0 +1,142 @@
+package utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Callable;
+
+/**
+ * Annulation côté base des requêtes d'un travail d'arrière-plan.
+ * <p>
+ * Un travail s'exécute dans une {@link Scope} rattachée à son thread. Les instructions remises
+ * par le pool y enregistrent la requête en cours d'exécution ; l'annulation de la portée,
+ * depuis un autre thread, appelle {@link Statement#cancel()} sur cette requête et fait échouer
+ * les suivantes, de sorte que la base arrête aussitôt le travail devenu inutile.
+ */
+final class QueryCancellation {
+
+    // SQLSTATE d'une requête interrompue
+    private static final String CANCELLED_STATE = "70100";
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private QueryCancellation() {
+        // Classe utilitaire, pas d'instance
+    }
+
+    /**
+     * Exécute un travail dans une portée d'annulation.
+     *
+     * @param scope La portée du travail
+     * @param work Le travail
+     * @param <T> Type du résultat
+     * @return Le résultat du travail
+     * @throws Exception L'exception levée par le travail
+     */
+    static <T> T run(Scope scope, Callable<T> work) throws Exception {
+        Scope previous = CURRENT.get();
+        CURRENT.set(scope);
+        try {
+            return work.call();
+        } finally {
+            scope.end();
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Appelle une méthode d'une instruction en enregistrant les exécutions dans la portée du thread.
+     * Utilisée par les proxies d'instructions du pool.
+     *
+     * @param statement L'instruction physique
+     * @param method La méthode appelée
+     * @param args Les arguments de l'appel
+     * @return Le résultat de l'appel
+     * @throws Throwable L'exception levée par l'instruction
+     */
+    static Object invoke(Statement statement, Method method, Object[] args) throws Throwable {
+        Scope scope = method.getName().startsWith("execute") ? CURRENT.get() : null;
+        if (scope != null) {
+            scope.started(statement);
+        }
+        try {
+            return method.invoke(statement, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            if (scope != null) {
+                scope.finished(statement);
+            }
+        }
+    }
+
+    /**
+     * Enveloppe une instruction non mise en cache pour que ses exécutions soient annulables.
+     * Son getConnection() renvoie le proxy de connexion du pool, pas la connexion physique.
+     *
+     * @param statement L'instruction physique
+     * @param type L'interface exposée (Statement, PreparedStatement ou CallableStatement)
+     * @param connection Le proxy de connexion qui a créé l'instruction
+     * @param <S> Type de l'instruction
+     * @return L'instruction enveloppée
+     */
+    static <S extends Statement> S track(S statement, Class<S> type, Connection connection) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> "getConnection".equals(method.getName())
+                        ? connection
+                        : invoke(statement, method, args)));
+    }
+
+    /**
+     * Portée d'annulation d'un travail : la requête qu'il exécute et son état d'annulation.
+     * L'instruction suivie est oubliée sous le même verrou que l'annulation dès la fin de son
+     * exécution : une fois rendue au cache ou au pool et réutilisée ailleurs, elle ne peut plus
+     * être annulée par cette portée.
+     */
+    static final class Scope {
+        private Statement running;
+        private boolean cancelled;
+
+        /**
+         * Annule la requête en cours d'exécution, s'il y en a une, et fait échouer les suivantes.
+         * Peut être appelée depuis n'importe quel thread.
+         */
+        synchronized void cancel() {
+            cancelled = true;
+            if (running != null) {
+                try {
+                    running.cancel();
+                } catch (SQLException e) {
+                    System.err.println("Erreur lors de l'annulation d'une requête: " + e.getMessage());
+                }
+            }
+        }
+
+        private synchronized void started(Statement statement) throws SQLException {
+            if (cancelled) {
+                throw new SQLException("Requête annulée.", CANCELLED_STATE);
+            }
+            running = statement;
+        }
+
+        private synchronized void finished(Statement statement) {
+            if (running == statement) {
+                running = null;
+            }
+        }
+
+        /**
+         * Termine la portée : plus aucune instruction n'est suivie.
+         */
+        private synchronized void end() {
+            running = null;
+        }
+    }
+}
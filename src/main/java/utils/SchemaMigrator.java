@@ -0,0 +1,287 @@
+package utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Migrations versionnées du schéma de la base de données.
+ * Les scripts db/migration/V&lt;n&gt;__&lt;description&gt;.sql sont appliqués dans l'ordre et
+ * enregistrés dans la table schema_version avec leur somme de contrôle SHA-256.
+ * Un script déjà appliqué ne doit plus être modifié : toute évolution passe par un nouveau script.
+ */
+public final class SchemaMigrator {
+
+    private static final String MIGRATION_PATH = "db/migration/";
+
+    /**
+     * Scripts de migration, dans l'ordre d'application.
+     */
+    private static final String[] MIGRATIONS = {
+            "V1__schema_initial.sql",
+            "V2__donnees_exemple.sql",
+            "V3__index_emprunts.sql",
+            "V4__colonnes_date.sql",
+            "V5__journal_modifications.sql",
+            "V6__index_recherche_emprunts.sql"
+    };
+
+    private static final String LOCK_NAME = "bibliotheque_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private static final String CREATE_VERSION_TABLE = "CREATE TABLE IF NOT EXISTS schema_version ("
+            + "version INT PRIMARY KEY, "
+            + "description VARCHAR(200) NOT NULL, "
+            + "checksum CHAR(64) NOT NULL, "
+            + "installed_on TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+            + "execution_ms INT NOT NULL)";
+
+    private SchemaMigrator() {
+        // Classe utilitaire, pas d'instance
+    }
+
+    /**
+     * Met le schéma à jour.
+     * Si la dernière version enregistrée correspond au dernier script connu, une seule requête est exécutée.
+     *
+     * @param conn La connexion à utiliser
+     * @throws SQLException En cas d'erreur lors d'une migration ou de somme de contrôle différente
+     */
+    public static void migrate(Connection conn) throws SQLException {
+        List<Migration> migrations = loadMigrations();
+        Migration latest = migrations.get(migrations.size() - 1);
+
+        if (isCurrent(conn, latest)) {
+            System.out.println("Schéma de la base de données à jour (version " + latest.version + ").");
+            return;
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            acquireLock(stmt);
+            try {
+                stmt.execute(CREATE_VERSION_TABLE);
+                Map<Integer, String> applied = loadAppliedChecksums(stmt);
+
+                for (Migration migration : migrations) {
+                    String checksum = applied.get(migration.version);
+                    if (checksum == null) {
+                        apply(conn, stmt, migration);
+                    } else if (!checksum.equals(migration.checksum)) {
+                        throw new SQLException("La migration V" + migration.version + " (" + migration.description
+                                + ") a été modifiée après son application.");
+                    }
+                }
+            } finally {
+                stmt.execute("DO RELEASE_LOCK('" + LOCK_NAME + "')");
+            }
+        }
+    }
+
+    /**
+     * Vérifie en une requête si la dernière migration est déjà appliquée.
+     */
+    private static boolean isCurrent(Connection conn, Migration latest) {
+        String sql = "SELECT version, checksum FROM schema_version ORDER BY version DESC LIMIT 1";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() && rs.getInt("version") == latest.version
+                    && latest.checksum.equals(rs.getString("checksum"));
+        } catch (SQLException e) {
+            // Table schema_version absente : base nouvelle ou antérieure aux migrations
+            return false;
+        }
+    }
+
+    /**
+     * Pose un verrou nommé pour qu'une seule instance applique les migrations.
+     */
+    private static void acquireLock(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT GET_LOCK('" + LOCK_NAME + "', " + LOCK_TIMEOUT_SECONDS + ")")) {
+            if (!rs.next() || rs.getInt(1) != 1) {
+                throw new SQLException("Impossible d'obtenir le verrou de migration du schéma.");
+            }
+        }
+    }
+
+    private static Map<Integer, String> loadAppliedChecksums(Statement stmt) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Exécute un script de migration puis l'enregistre dans schema_version.
+     */
+    private static void apply(Connection conn, Statement stmt, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        for (String query : splitStatements(migration.script)) {
+            try {
+                stmt.execute(query);
+            } catch (SQLException e) {
+                throw new SQLException("Échec de la migration V" + migration.version + " sur la requête: " + query, e);
+            }
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        String sql = "INSERT INTO schema_version (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, migration.version);
+            pstmt.setString(2, migration.description);
+            pstmt.setString(3, migration.checksum);
+            pstmt.setInt(4, (int) elapsedMs);
+            pstmt.executeUpdate();
+        }
+        System.out.println("Migration V" + migration.version + " (" + migration.description + ") appliquée en " + elapsedMs + " ms.");
+    }
+
+    /**
+     * Découpe un script en requêtes sur les points-virgules situés hors chaînes, identifiants et commentaires.
+     *
+     * @param script Le contenu du script
+     * @return Les requêtes, sans commentaires ni point-virgule final
+     */
+    static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int length = script.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = script.charAt(i);
+            char next = i + 1 < length ? script.charAt(i + 1) : '\0';
+
+            if (c == '\'' || c == '"' || c == '`') {
+                int end = i + 1;
+                while (end < length) {
+                    char d = script.charAt(end);
+                    if (d == '\\' && c != '`') {
+                        end += 2;
+                    } else if (d == c) {
+                        if (end + 1 < length && script.charAt(end + 1) == c) {
+                            end += 2;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        end++;
+                    }
+                }
+                end = Math.min(end + 1, length);
+                current.append(script, i, end);
+                i = end;
+            } else if ((c == '-' && next == '-') || c == '#') {
+                while (i < length && script.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '/' && next == '*') {
+                int end = script.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                current.append(' ');
+            } else if (c == ';') {
+                addStatement(statements, current);
+                i++;
+            } else {
+                current.append(c);
+                i++;
+            }
+        }
+        addStatement(statements, current);
+        return statements;
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder current) {
+        String statement = current.toString().trim();
+        if (!statement.isEmpty()) {
+            statements.add(statement);
+        }
+        current.setLength(0);
+    }
+
+    /**
+     * Charge les scripts de migration depuis les ressources.
+     */
+    private static List<Migration> loadMigrations() throws SQLException {
+        List<Migration> migrations = new ArrayList<>();
+        int previous = 0;
+        for (String name : MIGRATIONS) {
+            Migration migration = new Migration(name, loadResource(MIGRATION_PATH + name));
+            if (migration.version <= previous) {
+                throw new SQLException("Migrations mal ordonnées: " + name);
+            }
+            previous = migration.version;
+            migrations.add(migration);
+        }
+        return migrations;
+    }
+
+    private static String loadResource(String path) throws SQLException {
+        try (InputStream is = SchemaMigrator.class.getClassLoader().getResourceAsStream(path)) {
+            if (is == null) {
+                throw new IOException("Le fichier " + path + " n'a pas été trouvé dans les ressources.");
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+                return reader.lines().collect(Collectors.joining("\n"));
+            }
+        } catch (IOException e) {
+            throw new SQLException("Erreur lors de la lecture du script de migration: " + e.getMessage(), e);
+        }
+    }
+
+    private static String sha256(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(content.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    /**
+     * Script de migration chargé.
+     */
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final String script;
+        private final String checksum;
+
+        private Migration(String name, String script) throws SQLException {
+            int separator = name.indexOf("__");
+            if (!name.startsWith("V") || separator < 0 || !name.endsWith(".sql")) {
+                throw new SQLException("Nom de migration invalide: " + name);
+            }
+            try {
+                this.version = Integer.parseInt(name.substring(1, separator));
+            } catch (NumberFormatException e) {
+                throw new SQLException("Nom de migration invalide: " + name, e);
+            }
+            this.description = name.substring(separator + 2, name.length() - 4).replace('_', ' ');
+            this.script = script;
+            // Lignes lues sans fin de ligne : la somme ne dépend pas de CRLF/LF
+            this.checksum = sha256(script);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache LRU de PreparedStatement attaché à une connexion physique du pool.
+ * Les requêtes préparées avec un SQL déjà vu réutilisent l'instruction existante ;
+ * la fermeture du proxy remis à l'appelant la rend au cache au lieu de la fermer.
+ */
+final class StatementCache {
+
+    private final Connection physical;
+    private final int maxSize;
+    private final LinkedHashMap<String, Entry> entries;
+
+    /**
+     * Constructeur.
+     *
+     * @param physical La connexion physique propriétaire des instructions
+     * @param maxSize Le nombre maximal d'instructions conservées
+     */
+    StatementCache(Connection physical, int maxSize) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Prépare une instruction en la réutilisant si elle est déjà en cache.
+     *
+     * @param sql La requête SQL
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS ou Statement.NO_GENERATED_KEYS
+     * @param connection Le proxy de connexion de l'appelant, renvoyé par getConnection()
+     * @return Une instruction préparée à fermer normalement par l'appelant
+     * @throws SQLException En cas d'erreur lors de la préparation
+     */
+    synchronized PreparedStatement prepare(String sql, int autoGeneratedKeys, Connection connection) throws SQLException {
+        PoolMetrics metrics = PoolMetrics.getInstance();
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+        Entry entry = entries.get(key);
+
+        if (entry != null) {
+            if (entry.inUse) {
+                // Même requête déjà ouverte sur cette connexion : instruction non mise en cache
+                metrics.recordStatementCacheMiss();
+                return QueryCancellation.track(physical.prepareStatement(sql, autoGeneratedKeys), PreparedStatement.class, connection);
+            }
+            metrics.recordStatementCacheHit();
+            return entry.checkout(connection);
+        }
+
+        metrics.recordStatementCacheMiss();
+        entry = new Entry(physical.prepareStatement(sql, autoGeneratedKeys));
+        entries.put(key, entry);
+        evictIfNeeded();
+        return entry.checkout(connection);
+    }
+
+    /**
+     * Rend au cache toutes les instructions encore ouvertes.
+     * Appelée lorsque la connexion est rendue au pool.
+     */
+    synchronized void releaseAll() {
+        List<Entry> inUse = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.inUse) {
+                inUse.add(entry);
+            }
+        }
+        for (Entry entry : inUse) {
+            entry.giveBack();
+        }
+    }
+
+    /**
+     * Retire les instructions les moins récemment utilisées au-delà de la taille maximale.
+     */
+    private void evictIfNeeded() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            eldest.evicted = true;
+            PoolMetrics.getInstance().recordStatementCacheEviction();
+            if (!eldest.inUse) {
+                eldest.closePhysical();
+            }
+        }
+    }
+
+    /**
+     * Instruction préparée conservée dans le cache.
+     * Les réglages modifiables par l'appelant sont relevés à la création pour être rétablis
+     * à chaque retour au cache.
+     */
+    private final class Entry {
+        private final PreparedStatement statement;
+        private final int fetchSize;
+        private final int fetchDirection;
+        private final int queryTimeout;
+        private final long maxRows;
+        private boolean inUse;
+        private boolean evicted;
+        private Handle handle;
+
+        private Entry(PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+            this.fetchDirection = statement.getFetchDirection();
+            this.queryTimeout = statement.getQueryTimeout();
+            this.maxRows = statement.getLargeMaxRows();
+        }
+
+        private PreparedStatement checkout(Connection connection) {
+            inUse = true;
+            handle = new Handle(this, connection);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class },
+                    handle);
+        }
+
+        private void giveBack() {
+            if (handle != null) {
+                handle.closed = true;
+                handle = null;
+            }
+            inUse = false;
+            if (evicted) {
+                closePhysical();
+                return;
+            }
+            try {
+                // Un résultat laissé ouvert ou un réglage modifié ne doit pas suivre l'instruction
+                ResultSet open = statement.getResultSet();
+                if (open != null) {
+                    open.close();
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.clearWarnings();
+                statement.setFetchSize(fetchSize);
+                statement.setFetchDirection(fetchDirection);
+                statement.setQueryTimeout(queryTimeout);
+                statement.setLargeMaxRows(maxRows);
+            } catch (SQLException e) {
+                entries.values().remove(this);
+                closePhysical();
+            }
+        }
+
+        private void closePhysical() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("Erreur lors de la fermeture d'une instruction en cache: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gestionnaire d'appels du proxy remis à l'appelant.
+     * getConnection() renvoie le proxy de connexion de l'appelant, jamais la connexion physique.
+     */
+    private final class Handle implements InvocationHandler {
+        private final Entry entry;
+        private final Connection connection;
+        private volatile boolean closed;
+
+        private Handle(Entry entry, Connection connection) {
+            this.entry = entry;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (StatementCache.this) {
+                        if (!closed) {
+                            entry.giveBack();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("L'instruction a déjà été fermée.");
+            }
+            if ("getConnection".equals(method.getName())) {
+                return connection;
+            }
+
+            return QueryCancellation.invoke(entry.statement, method, args);
+        }
+    }
+}
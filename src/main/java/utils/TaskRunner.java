@@ -0,0 +1,186 @@
+package utils;
+
+import javafx.application.Platform;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.concurrent.Task;
+import javafx.scene.control.ProgressIndicator;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Exécution des accès à la base hors du thread JavaFX, pour un contrôleur.
+ * Le travail s'exécute dans une {@link Task} sur un pool de threads d'arrière-plan ;
+ * le résultat est remis sur le thread JavaFX, en une seule fois, au gestionnaire de succès.
+ * <p>
+ * {@link #run} remplace le chargement précédent du même exécuteur (annulé, son résultat ignoré,
+ * sa requête en cours interrompue par {@link java.sql.Statement#cancel()}) ;
+ * {@link #submit} s'exécute en parallèle des autres. {@link #await} suit un futur déjà lancé, par exemple
+ * par un DAO asynchrone, dans un emplacement distinct : il ne remplace que le futur suivi précédent, sans
+ * annuler le chargement de {@link #run} ni être annulé par lui. L'indicateur de progression éventuel est
+ * affiché tant qu'au moins une tâche est en cours.
+ */
+public class TaskRunner {
+
+    private static final int THREADS = Math.max(1, Config.getInt("UI_LOADER_THREADS", 4));
+
+    private static final ExecutorService EXECUTOR;
+
+    static {
+        AtomicInteger threadCount = new AtomicInteger();
+        EXECUTOR = Executors.newFixedThreadPool(THREADS, r -> {
+            Thread thread = new Thread(r, "ui-loader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final IntegerProperty running = new SimpleIntegerProperty();
+    private Future<?> current;
+    private Future<?> awaited;
+
+    /**
+     * Constructeur.
+     *
+     * @param indicator L'indicateur affiché pendant les chargements (peut être null)
+     */
+    public TaskRunner(ProgressIndicator indicator) {
+        if (indicator != null) {
+            indicator.visibleProperty().bind(running.greaterThan(0));
+            indicator.managedProperty().bind(indicator.visibleProperty());
+        }
+    }
+
+    /**
+     * Lance un chargement en annulant le précédent s'il est encore en cours.
+     * À appeler depuis le thread JavaFX.
+     *
+     * @param work Le travail à exécuter en arrière-plan
+     * @param onSuccess Fonction appelée sur le thread JavaFX avec le résultat
+     * @param onFailure Fonction appelée sur le thread JavaFX en cas d'erreur
+     * @param <T> Type du résultat
+     * @return La tâche lancée, pour suivre sa progression ou l'annuler
+     */
+    public <T> Task<T> run(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        cancel();
+        Task<T> task = start(work, onSuccess, onFailure, true);
+        current = task;
+        return task;
+    }
+
+    /**
+     * Suit un futur, en annulant le futur suivi précédemment par cette méthode s'il est encore en cours.
+     * Le chargement lancé par {@link #run} n'est pas concerné.
+     * À appeler depuis le thread JavaFX.
+     *
+     * @param future Le futur, déjà lancé
+     * @param onSuccess Fonction appelée sur le thread JavaFX avec le résultat
+     * @param onFailure Fonction appelée sur le thread JavaFX en cas d'erreur
+     * @param <T> Type du résultat
+     * @return Le futur suivi
+     */
+    public <T> CompletableFuture<T> await(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        if (awaited != null) {
+            awaited.cancel(true);
+        }
+        awaited = future;
+        running.set(running.get() + 1);
+        future.whenComplete((value, error) -> Platform.runLater(() -> {
+            running.set(running.get() - 1);
+            if (awaited != future) {
+                return;
+            }
+            awaited = null;
+            if (error == null) {
+                onSuccess.accept(value);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (!(cause instanceof CancellationException)) {
+                    onFailure.accept(cause);
+                }
+            }
+        }));
+        return future;
+    }
+
+    /**
+     * Lance un travail sans annuler ceux en cours.
+     * À appeler depuis le thread JavaFX.
+     *
+     * @param work Le travail à exécuter en arrière-plan
+     * @param onSuccess Fonction appelée sur le thread JavaFX avec le résultat
+     * @param onFailure Fonction appelée sur le thread JavaFX en cas d'erreur
+     * @param <T> Type du résultat
+     * @return La tâche lancée
+     */
+    public <T> Task<T> submit(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        return start(work, onSuccess, onFailure, false);
+    }
+
+    /**
+     * Annule le chargement en cours lancé par {@link #run}, s'il y en a un.
+     */
+    public void cancel() {
+        if (current != null) {
+            current.cancel(true);
+            current = null;
+        }
+    }
+
+    private <T> Task<T> start(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure, boolean replaceable) {
+        QueryCancellation.Scope scope = new QueryCancellation.Scope();
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return QueryCancellation.run(scope, work);
+            }
+
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                // La requête en cours est aussi interrompue côté base
+                boolean cancelled = super.cancel(mayInterruptIfRunning);
+                if (cancelled) {
+                    scope.cancel();
+                }
+                return cancelled;
+            }
+        };
+
+        // Un résultat arrivé après l'annulation de son chargement est ignoré
+        task.setOnSucceeded(event -> {
+            if (finished(task, replaceable)) {
+                onSuccess.accept(task.getValue());
+            }
+        });
+        task.setOnFailed(event -> {
+            if (finished(task, replaceable)) {
+                onFailure.accept(task.getException());
+            }
+        });
+        task.setOnCancelled(event -> finished(task, replaceable));
+
+        running.set(running.get() + 1);
+        EXECUTOR.execute(task);
+        return task;
+    }
+
+    private boolean finished(Future<?> task, boolean replaceable) {
+        running.set(running.get() - 1);
+        if (!replaceable) {
+            return true;
+        }
+        if (current != task) {
+            return false;
+        }
+        current = null;
+        return true;
+    }
+}
@@ -0,0 +1,44 @@
+package utils;
+
+/**
+ * Index de recherche en mémoire sur quelques champs textuels d'une entité identifiée par son ID.
+ * Les implémentations sont sûres entre threads.
+ */
+public interface TextIndex {
+
+    /**
+     * Indexe une entité, en remplaçant sa version précédente.
+     *
+     * @param id L'ID de l'entité
+     * @param fields Les valeurs des champs (peuvent être null)
+     */
+    void put(int id, String... fields);
+
+    /**
+     * Retire une entité de l'index.
+     *
+     * @param id L'ID de l'entité
+     */
+    void remove(int id);
+
+    /**
+     * Vide l'index.
+     */
+    void clear();
+
+    /**
+     * Retourne le nombre d'entités indexées.
+     *
+     * @return Le nombre d'entités
+     */
+    int size();
+
+    /**
+     * Recherche les entités correspondant à une saisie.
+     *
+     * @param query La saisie
+     * @param limit Le nombre maximal d'IDs renvoyés
+     * @return Les IDs trouvés, du plus pertinent au moins pertinent
+     */
+    int[] search(String query, int limit);
+}
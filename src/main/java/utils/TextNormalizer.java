@@ -0,0 +1,67 @@
+package utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalisation des textes pour les index de recherche en mémoire :
+ * minuscules sans accents, découpage en mots.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    // Trait d'union entre deux chiffres (ISBN, dates) : supprimé pour garder un seul mot
+    private static final Pattern DIGIT_HYPHEN = Pattern.compile("(?<=\\d)-(?=\\d)");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TextNormalizer() {
+        // Classe utilitaire, pas d'instance
+    }
+
+    /**
+     * Retire les accents et met en minuscules : « Éléonore » devient « eleonore ».
+     *
+     * @param text Le texte (peut être null)
+     * @return Le texte normalisé, vide si le texte est null
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        if (isAscii(text)) {
+            // Cas le plus courant, sans accent à retirer : évite la décomposition Unicode
+            return text.toLowerCase(Locale.ROOT);
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Découpe un texte normalisé en mots (lettres et chiffres).
+     *
+     * @param text Le texte (peut être null)
+     * @return Les mots, dans l'ordre, éventuellement répétés
+     */
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        String folded = DIGIT_HYPHEN.matcher(fold(text)).replaceAll("");
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,368 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index de trigrammes en mémoire pour la recherche approximative, tolérante aux fautes de frappe.
+ * <p>
+ * Chaque mot normalisé ({@link TextNormalizer}) est découpé en trigrammes après l'ajout de deux
+ * espaces au début et d'un à la fin, ce qui donne plus de poids au début du mot ; chaque trigramme
+ * renvoie à la liste triée des entités qui le contiennent.
+ * <p>
+ * Une recherche compte pour chaque entité les trigrammes partagés avec la saisie. L'entité est
+ * retenue si elle contient au moins 40 % des trigrammes de la saisie ; elle est classée surtout
+ * selon cette proportion, puis selon la similarité de Jaccard, qui favorise les entités sans texte
+ * superflu. Seuls les {@code limit} meilleurs résultats sont conservés.
+ * <p>
+ * Les trigrammes les plus rares de la saisie suffisent à trouver les candidats : une entité qui
+ * n'en contient aucun ne peut atteindre le seuil. Les trigrammes fréquents (début de nom courant,
+ * domaine d'email) ne servent qu'à compléter le score des candidats, écartés dès qu'ils ne peuvent
+ * plus atteindre le seuil.
+ * <p>
+ * Les lectures sont concurrentes, les écritures exclusives.
+ */
+public class TrigramIndex implements TextIndex {
+
+    // Proportion minimale des trigrammes de la saisie présents dans une entité retenue
+    private static final float MIN_CONTAINMENT = 0.4f;
+    private static final float JACCARD_WEIGHT = 0.3f;
+    // Coût approximatif d'une recherche dichotomique, en éléments parcourus
+    private static final int LOOKUP_COST = 16;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    // Emplacements des entités : les listes de trigrammes référencent l'emplacement, pas l'ID
+    private final Map<Integer, Integer> slots = new HashMap<>();
+    private int[] slotIds = new int[16];
+    private long[][] slotTrigrams = new long[16][];
+    private int slotCount;
+    private final List<Integer> freeSlots = new ArrayList<>();
+
+    // Compteurs de trigrammes partagés, réutilisés d'une recherche à l'autre par thread
+    private final ThreadLocal<int[]> counters = ThreadLocal.withInitial(() -> new int[0]);
+
+    /**
+     * Indexe une entité, en remplaçant sa version précédente. Une entité déjà indexée garde son
+     * emplacement : seuls les trigrammes apparus ou disparus sont mis à jour.
+     *
+     * @param id L'ID de l'entité
+     * @param fields Les valeurs des champs (peuvent être null)
+     */
+    @Override
+    public void put(int id, String... fields) {
+        long[] documentTrigrams = trigramsOf(fields);
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = slots.get(id);
+            if (existing == null) {
+                int slot = allocateSlot(id);
+                slotTrigrams[slot] = documentTrigrams;
+                for (long trigram : documentTrigrams) {
+                    postings.computeIfAbsent(trigram, k -> new Postings()).add(slot);
+                }
+                return;
+            }
+            int slot = existing;
+            long[] previous = slotTrigrams[slot];
+            for (long trigram : previous) {
+                if (Arrays.binarySearch(documentTrigrams, trigram) < 0) {
+                    removePosting(trigram, slot);
+                }
+            }
+            for (long trigram : documentTrigrams) {
+                if (Arrays.binarySearch(previous, trigram) < 0) {
+                    postings.computeIfAbsent(trigram, k -> new Postings()).add(slot);
+                }
+            }
+            slotTrigrams[slot] = documentTrigrams;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retire une entité de l'index.
+     *
+     * @param id L'ID de l'entité
+     */
+    @Override
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vide l'index.
+     */
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            slots.clear();
+            freeSlots.clear();
+            slotIds = new int[16];
+            slotTrigrams = new long[16][];
+            slotCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retourne le nombre d'entités indexées.
+     *
+     * @return Le nombre d'entités
+     */
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recherche les entités les plus proches de la saisie, fautes de frappe comprises.
+     *
+     * @param query La saisie
+     * @param limit Le nombre maximal d'IDs renvoyés
+     * @return Les IDs trouvés, du plus proche au moins proche
+     */
+    @Override
+    public int[] search(String query, int limit) {
+        long[] queryTrigrams = trigramsOf(query);
+        if (queryTrigrams.length == 0 || limit <= 0) {
+            return new int[0];
+        }
+        int minShared = Math.max(1, (int) Math.ceil(queryTrigrams.length * MIN_CONTAINMENT));
+
+        lock.readLock().lock();
+        try {
+            // Listes des trigrammes de la saisie, de la plus courte à la plus longue (absentes : vides)
+            List<Postings> lists = new ArrayList<>(queryTrigrams.length);
+            for (long trigram : queryTrigrams) {
+                lists.add(postings.getOrDefault(trigram, Postings.EMPTY));
+            }
+            lists.sort((a, b) -> Integer.compare(a.size, b.size));
+            // Une entité retenue contient au moins un des trigrammes rares
+            int candidateLists = queryTrigrams.length - minShared + 1;
+
+            int[] counts = counters.get();
+            if (counts.length < slotCount) {
+                counts = new int[slotIds.length];
+                counters.set(counts);
+            }
+
+            // Comptage des trigrammes partagés ; touchedSlots liste les compteurs à remettre à zéro
+            int[] touchedSlots = new int[64];
+            int touchedCount = 0;
+            for (int t = 0; t < candidateLists; t++) {
+                Postings list = lists.get(t);
+                for (int i = 0; i < list.size; i++) {
+                    int slot = list.slots[i];
+                    if (counts[slot]++ == 0) {
+                        if (touchedCount == touchedSlots.length) {
+                            touchedSlots = Arrays.copyOf(touchedSlots, touchedCount * 2);
+                        }
+                        touchedSlots[touchedCount++] = slot;
+                    }
+                }
+            }
+            for (int t = candidateLists; t < lists.size() && touchedCount > 0; t++) {
+                // Écarte les candidats qui n'atteindraient pas le seuil même avec les listes restantes
+                int remaining = lists.size() - t;
+                int kept = 0;
+                for (int i = 0; i < touchedCount; i++) {
+                    int slot = touchedSlots[i];
+                    if (counts[slot] + remaining >= minShared) {
+                        touchedSlots[kept++] = slot;
+                    } else {
+                        counts[slot] = 0;
+                    }
+                }
+                touchedCount = kept;
+
+                // Parcours de la liste si elle est courte, sinon recherche dichotomique de chaque candidat
+                Postings list = lists.get(t);
+                if (list.size < touchedCount * LOOKUP_COST) {
+                    for (int i = 0; i < list.size; i++) {
+                        if (counts[list.slots[i]] > 0) {
+                            counts[list.slots[i]]++;
+                        }
+                    }
+                } else {
+                    for (int i = 0; i < touchedCount; i++) {
+                        if (list.indexOf(touchedSlots[i]) >= 0) {
+                            counts[touchedSlots[i]]++;
+                        }
+                    }
+                }
+            }
+
+            // Tas des meilleurs résultats, le moins bon en tête
+            PriorityQueue<Candidate> best = new PriorityQueue<>();
+            for (int i = 0; i < touchedCount; i++) {
+                int slot = touchedSlots[i];
+                int shared = counts[slot];
+                counts[slot] = 0;
+                if (shared < minShared) {
+                    continue;
+                }
+                float containment = (float) shared / queryTrigrams.length;
+                // Le score ne dépasse pas la proportion partagée : inutile d'aller plus loin si le tas est meilleur
+                if (best.size() == limit && containment < best.peek().score) {
+                    continue;
+                }
+                float jaccard = (float) shared / (queryTrigrams.length + slotTrigrams[slot].length - shared);
+                best.add(new Candidate(slotIds[slot], (1 - JACCARD_WEIGHT) * containment + JACCARD_WEIGHT * jaccard));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            int[] ids = new int[best.size()];
+            for (int i = ids.length - 1; i >= 0; i--) {
+                ids[i] = best.poll().id;
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retourne les trigrammes distincts et triés des mots des textes, chacun codé sur un long
+     * (trois caractères de 16 bits).
+     */
+    private static long[] trigramsOf(String... texts) {
+        long[] trigrams = new long[16];
+        int count = 0;
+        for (String text : texts) {
+            for (String token : TextNormalizer.tokens(text)) {
+                String padded = "  " + token + " ";
+                for (int i = 0; i + 3 <= padded.length(); i++) {
+                    if (count == trigrams.length) {
+                        trigrams = Arrays.copyOf(trigrams, count * 2);
+                    }
+                    trigrams[count++] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+                }
+            }
+        }
+        Arrays.sort(trigrams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || trigrams[i] != trigrams[distinct - 1]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    private int allocateSlot(int id) {
+        int slot;
+        if (!freeSlots.isEmpty()) {
+            slot = freeSlots.remove(freeSlots.size() - 1);
+        } else {
+            if (slotCount == slotIds.length) {
+                slotIds = Arrays.copyOf(slotIds, slotCount * 2);
+                slotTrigrams = Arrays.copyOf(slotTrigrams, slotCount * 2);
+            }
+            slot = slotCount++;
+        }
+        slotIds[slot] = id;
+        slots.put(id, slot);
+        return slot;
+    }
+
+    private void removeLocked(int id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return;
+        }
+        for (long trigram : slotTrigrams[slot]) {
+            removePosting(trigram, slot);
+        }
+        slotTrigrams[slot] = null;
+        freeSlots.add(slot);
+    }
+
+    private void removePosting(long trigram, int slot) {
+        Postings list = postings.get(trigram);
+        if (list != null && list.remove(slot) && list.size == 0) {
+            postings.remove(trigram);
+        }
+    }
+
+    /**
+     * Résultat candidat, ordonné du moins bon au meilleur (score croissant, puis ID décroissant).
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+        private final int id;
+        private final float score;
+
+        private Candidate(int id, float score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            int byScore = Float.compare(score, other.score);
+            return byScore != 0 ? byScore : Integer.compare(other.id, id);
+        }
+    }
+
+    /**
+     * Emplacements triés des entités contenant un trigramme.
+     */
+    private static final class Postings {
+        private static final Postings EMPTY = new Postings();
+
+        private int[] slots = new int[2];
+        private int size;
+
+        private int indexOf(int slot) {
+            return Arrays.binarySearch(slots, 0, size, slot);
+        }
+
+        private void add(int slot) {
+            int index = size == 0 || slots[size - 1] < slot ? -size - 1 : indexOf(slot);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, index, slots, index + 1, size - index);
+            slots[index] = slot;
+            size++;
+        }
+
+        private boolean remove(int slot) {
+            int index = indexOf(slot);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+-- V1 : schéma initial du système de gestion de bibliothèque
+-- Tables: livres, membres, emprunts
+
+-- Table des livres
+CREATE TABLE IF NOT EXISTS livres (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    titre VARCHAR(255) NOT NULL,
+    auteur VARCHAR(255) NOT NULL,
+    isbn VARCHAR(20) UNIQUE NOT NULL,
+    annee_publication INT,
+    editeur VARCHAR(255),
+    disponible TINYINT(1) DEFAULT 1
+);
+
+-- Table des membres
+CREATE TABLE IF NOT EXISTS membres (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    nom VARCHAR(100) NOT NULL,
+    prenom VARCHAR(100) NOT NULL,
+    email VARCHAR(255) UNIQUE NOT NULL,
+    telephone VARCHAR(20),
+    adresse VARCHAR(255),
+    date_inscription VARCHAR(10) NOT NULL
+);
+
+-- Table des emprunts
+CREATE TABLE IF NOT EXISTS emprunts (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    livre_id INT NOT NULL,
+    membre_id INT NOT NULL,
+    date_emprunt VARCHAR(10) NOT NULL,
+    date_retour_prevue VARCHAR(10) NOT NULL,
+    date_retour_reelle VARCHAR(10),
+    FOREIGN KEY (livre_id) REFERENCES livres(id),
+    FOREIGN KEY (membre_id) REFERENCES membres(id)
+);
@@ -0,0 +1,22 @@
+-- V2 : données d'exemple
+-- Insérées uniquement dans des tables vides, pour ne pas modifier une base existante
+
+INSERT INTO livres (titre, auteur, isbn, annee_publication, editeur, disponible)
+SELECT d.* FROM (
+    SELECT 'Le Petit Prince' AS titre, 'Antoine de Saint-Exupéry' AS auteur, '9782070612758' AS isbn, 1943 AS annee_publication, 'Gallimard' AS editeur, 1 AS disponible
+    UNION ALL SELECT '1984', 'George Orwell', '9782070368228', 1949, 'Gallimard', 1
+    UNION ALL SELECT 'L''Étranger', 'Albert Camus', '9782070360024', 1942, 'Gallimard', 1
+    UNION ALL SELECT 'Candide', 'Voltaire', '9782081358133', 1759, 'Flammarion', 1
+    UNION ALL SELECT 'Les Misérables', 'Victor Hugo', '9782253096344', 1862, 'Le Livre de Poche', 1
+) AS d
+WHERE NOT EXISTS (SELECT 1 FROM livres);
+
+INSERT INTO membres (nom, prenom, email, telephone, adresse, date_inscription)
+SELECT d.* FROM (
+    SELECT 'Dupont' AS nom, 'Jean' AS prenom, 'jean.dupont@email.com' AS email, '0123456789' AS telephone, '1 rue de Paris, 75001 Paris' AS adresse, '2023-01-15' AS date_inscription
+    UNION ALL SELECT 'Martin', 'Sophie', 'sophie.martin@email.com', '0234567890', '2 avenue des Champs-Élysées, 75008 Paris', '2023-02-20'
+    UNION ALL SELECT 'Dubois', 'Pierre', 'pierre.dubois@email.com', '0345678901', '3 boulevard Saint-Michel, 75005 Paris', '2023-03-10'
+    UNION ALL SELECT 'Lefebvre', 'Marie', 'marie.lefebvre@email.com', '0456789012', '4 rue de Rivoli, 75004 Paris', '2023-04-05'
+    UNION ALL SELECT 'Bernard', 'Thomas', 'thomas.bernard@email.com', '0567890123', '5 place de la Bastille, 75011 Paris', '2023-05-12'
+) AS d
+WHERE NOT EXISTS (SELECT 1 FROM membres);
@@ -0,0 +1,33 @@
+-- V3 : index des requêtes sur les emprunts
+-- Un emprunt en cours a désormais toujours date_retour_reelle à NULL (plus de chaîne vide),
+-- ce qui permet un simple IS NULL indexable à la place de "IS NULL OR = ''".
+
+-- MySQL n'a pas de CREATE INDEX IF NOT EXISTS : chaque index n'est créé que s'il est absent
+-- d'information_schema.statistics, pour qu'une migration interrompue puisse être relancée.
+
+UPDATE emprunts SET date_retour_reelle = NULL WHERE date_retour_reelle = '';
+
+-- Emprunts en cours et en retard : égalité sur date_retour_reelle puis plage sur date_retour_prevue.
+-- Les autres colonnes rendent l'index couvrant pour la table emprunts.
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'emprunts' AND index_name = 'idx_emprunts_retour') = 0,
+        'CREATE INDEX idx_emprunts_retour ON emprunts (date_retour_reelle, date_retour_prevue, livre_id, membre_id, date_emprunt)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+-- Emprunts d'un membre ou d'un livre, éventuellement restreints à ceux en cours.
+-- Ces index servent aussi aux clés étrangères membre_id et livre_id.
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'emprunts' AND index_name = 'idx_emprunts_membre_retour') = 0,
+        'CREATE INDEX idx_emprunts_membre_retour ON emprunts (membre_id, date_retour_reelle)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'emprunts' AND index_name = 'idx_emprunts_livre_retour') = 0,
+        'CREATE INDEX idx_emprunts_livre_retour ON emprunts (livre_id, date_retour_reelle)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
@@ -0,0 +1,11 @@
+-- V4 : colonnes de dates typées
+-- Les valeurs AAAA-MM-JJ existantes sont converties en place par MODIFY.
+-- Les index de V3 sont reconstruits sur les colonnes DATE.
+
+ALTER TABLE emprunts
+    MODIFY date_emprunt DATE NOT NULL,
+    MODIFY date_retour_prevue DATE NOT NULL,
+    MODIFY date_retour_reelle DATE NULL;
+
+ALTER TABLE membres
+    MODIFY date_inscription DATE NOT NULL;
@@ -0,0 +1,13 @@
+-- V5 : journal des modifications
+-- Chaque client y inscrit ses écritures ; les autres clients le lisent par numéro de séquence
+-- pour invalider leurs caches et rafraîchir leurs vues sans tout recharger.
+
+CREATE TABLE IF NOT EXISTS change_log (
+    seq BIGINT PRIMARY KEY AUTO_INCREMENT,
+    entity VARCHAR(20) NOT NULL,
+    entity_id INT NOT NULL,
+    kind VARCHAR(20) NOT NULL,
+    client_id CHAR(36) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_change_log_created_at (created_at)
+);
@@ -0,0 +1,58 @@
+-- V6 : index de la recherche des emprunts
+-- La recherche filtre en SQL sur le titre du livre, le nom du membre et les dates :
+-- chaque critère dispose de son propre index, exploité par une branche de UNION.
+
+-- MySQL n'a pas de CREATE INDEX IF NOT EXISTS : chaque index n'est créé que s'il est absent
+-- d'information_schema.statistics, pour qu'une migration interrompue puisse être relancée.
+
+-- Mots du titre et du nom (recherche par préfixe de mot, MATCH ... AGAINST en mode booléen)
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'livres' AND index_name = 'ft_livres_titre') = 0,
+        'CREATE FULLTEXT INDEX ft_livres_titre ON livres (titre)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'membres' AND index_name = 'ft_membres_nom_prenom') = 0,
+        'CREATE FULLTEXT INDEX ft_membres_nom_prenom ON membres (nom, prenom)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+-- Début du titre, du nom ou du prénom, pour les saisies trop courtes pour l'index plein texte
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'livres' AND index_name = 'idx_livres_titre') = 0,
+        'CREATE INDEX idx_livres_titre ON livres (titre)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'membres' AND index_name = 'idx_membres_nom_prenom') = 0,
+        'CREATE INDEX idx_membres_nom_prenom ON membres (nom, prenom)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'membres' AND index_name = 'idx_membres_prenom') = 0,
+        'CREATE INDEX idx_membres_prenom ON membres (prenom)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+-- Plages de dates (date_retour_reelle est déjà en tête de idx_emprunts_retour)
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'emprunts' AND index_name = 'idx_emprunts_date_emprunt') = 0,
+        'CREATE INDEX idx_emprunts_date_emprunt ON emprunts (date_emprunt)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'emprunts' AND index_name = 'idx_emprunts_date_retour_prevue') = 0,
+        'CREATE INDEX idx_emprunts_date_retour_prevue ON emprunts (date_retour_prevue)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;